@@ -0,0 +1,101 @@
+package com.devlearning.currencyconverter.benchmark;
+
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.model.User;
+import com.devlearning.currencyconverter.repository.ConversionHistoryRepository;
+import com.devlearning.currencyconverter.repository.DailyConversionStatsRepository;
+import com.devlearning.currencyconverter.repository.UserRepository;
+import com.devlearning.currencyconverter.service.ConversionMetrics;
+import com.devlearning.currencyconverter.service.ConversionStatsService;
+import com.devlearning.currencyconverter.service.ExchangeRateApiClient;
+import com.devlearning.currencyconverter.service.ExchangeService;
+import com.devlearning.currencyconverter.service.HistoryWriter;
+import com.devlearning.currencyconverter.service.RateCache;
+import com.devlearning.currencyconverter.service.RateSnapshotService;
+import com.devlearning.currencyconverter.service.RateTimeSeries;
+import com.devlearning.currencyconverter.service.ResilientRateClient;
+import com.devlearning.currencyconverter.service.UserIdentityCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Builds the application objects used by the benchmarks, with every external dependency
+ * (upstream API, database, security) replaced by an in-memory stub.
+ * <p>
+ * The stubs are created with {@code stubOnly()} so Mockito does not record invocations,
+ * which would otherwise allocate and grow without bound during a benchmark.
+ */
+final class BenchmarkFixtures {
+
+    static final String USERNAME = "benchmark";
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * Creates an ExchangeService whose upstream always answers the given rate and whose
+     * repositories do not touch a database.
+     */
+    static ExchangeService exchangeService(BigDecimal upstreamRate) {
+        // Registo composto vazio: os timers das etapas não registam nada
+        return exchangeService(upstreamRate, new CompositeMeterRegistry());
+    }
+
+    /**
+     * Same as {@link #exchangeService(BigDecimal)}, recording the stage timers in the given registry.
+     */
+    static ExchangeService exchangeService(BigDecimal upstreamRate, MeterRegistry meterRegistry) {
+        ExchangeRateApiClient apiClient = new ExchangeRateApiClient(null, "http://benchmark/", "key") {
+            @Override
+            public BigDecimal fetchPairRate(String from, String to) {
+                return upstreamRate;
+            }
+        };
+
+        ConversionHistoryRepository historyRepository = Mockito.mock(ConversionHistoryRepository.class, withSettings().stubOnly());
+        when(historyRepository.save(any(ConversionHistory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(historyRepository.findByUserUsername(USERNAME)).thenReturn(List.of());
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user()));
+
+        UserIdentityCache userIdentityCache = new UserIdentityCache(userRepository);
+        DailyConversionStatsRepository statsRepository = Mockito.mock(DailyConversionStatsRepository.class, withSettings().stubOnly());
+        ConversionStatsService statsService = new ConversionStatsService(statsRepository, userIdentityCache);
+
+        return new ExchangeService(
+                new ResilientRateClient(apiClient, 5, 30000, 1, 0, 0, 1000, 0.1, 10),
+                historyRepository,
+                new HistoryWriter(historyRepository, statsService, "sync", 1, 1, 50),
+                userIdentityCache,
+                new RateCache(3600, 1000),
+                new RateSnapshotService(apiClient, Runnable::run, "USD", 300, "pair"),
+                new RateTimeSeries("", "USD", 30),
+                new ConversionMetrics(meterRegistry),
+                "pair"
+        );
+    }
+
+    static User user() {
+        return new User(USERNAME, "$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmar", "USER");
+    }
+
+    /**
+     * Authenticates every benchmark thread as the benchmark user.
+     */
+    static void authenticate() {
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(USERNAME, null, List.of()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.devlearning.currencyconverter.benchmark;
+
+import com.devlearning.currencyconverter.service.ConversionMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the amount × rate calculation done on every conversion: unbounded {@code multiply}, the usual
+ * ways of bounding the result, and the fixed-point engine used by the service ({@link ConversionMath},
+ * same result as {@code multiplyAndRoundToCents}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConversionMathBenchmark {
+
+    private static final int SAMPLES = 1024;
+    private static final MathContext DECIMAL64 = MathContext.DECIMAL64;
+
+    private BigDecimal[] amounts;
+    private BigDecimal[] rates;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new BigDecimal[SAMPLES];
+        rates = new BigDecimal[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            amounts[i] = BigDecimal.valueOf(random.nextInt(10_000_000), 2);
+            rates[i] = BigDecimal.valueOf(0.01 + random.nextDouble() * 500).round(new MathContext(12));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal multiplyUnbounded() {
+        int i = next++ & (SAMPLES - 1);
+        return amounts[i].multiply(rates[i]);
+    }
+
+    @Benchmark
+    public BigDecimal multiplyAndRoundToCents() {
+        int i = next++ & (SAMPLES - 1);
+        return amounts[i].multiply(rates[i]).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    @Benchmark
+    public BigDecimal multiplyWithMathContext() {
+        int i = next++ & (SAMPLES - 1);
+        return amounts[i].multiply(rates[i], DECIMAL64);
+    }
+
+    @Benchmark
+    public BigDecimal fixedPoint() {
+        int i = next++ & (SAMPLES - 1);
+        return ConversionMath.convert(amounts[i], rates[i], 2, RoundingMode.HALF_EVEN);
+    }
+}
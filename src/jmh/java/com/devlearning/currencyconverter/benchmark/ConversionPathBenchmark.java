@@ -0,0 +1,71 @@
+package com.devlearning.currencyconverter.benchmark;
+
+import com.devlearning.currencyconverter.controller.ExchangeController;
+import com.devlearning.currencyconverter.exception.GlobalExceptionHandler;
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.service.ExchangeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * End-to-end cost of one conversion with the upstream API and the database stubbed out:
+ * <ul>
+ *   <li>{@code service}: {@link ExchangeService#convertCurrency} alone (rate cache hit, math, entity).</li>
+ *   <li>{@code controller}: the full MVC path through MockMvc, adding JSON parsing, validation,
+ *   handler dispatch and response serialization.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionPathBenchmark {
+
+    private static final String REQUEST_BODY = "{\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":100.00}";
+
+    private ExchangeService exchangeService;
+    private MockMvc mockMvc;
+    private final BigDecimal amount = new BigDecimal("100.00");
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.authenticate();
+        exchangeService = BenchmarkFixtures.exchangeService(new BigDecimal("0.925"));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ExchangeController(exchangeService, null, null, null, null, null))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Benchmark
+    public ConversionHistory service() {
+        return exchangeService.convertCurrency("USD", "EUR", amount);
+    }
+
+    @Benchmark
+    public byte[] controller() throws Exception {
+        return mockMvc.perform(post("/api/exchange/convert")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(REQUEST_BODY))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+    }
+}
@@ -0,0 +1,158 @@
+package com.devlearning.currencyconverter.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts per second into the conversion_history table of an in-memory H2 database, replaying the
+ * JDBC calls Hibernate makes for each id strategy when a transaction saves {@value #ROWS} rows:
+ * <ul>
+ *   <li>{@code identity} (before): one INSERT per row, each reading back the generated key.</li>
+ *   <li>{@code sequence}: one sequence call per {@code allocationSize} rows and the INSERTs sent in
+ *   JDBC batches of {@code hibernate.jdbc.batch_size}.</li>
+ * </ul>
+ * Scores are rows per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistoryInsertBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    private static final String COLUMNS =
+            "converted_amount, exchange_rate, from_currency, original_amount, timestamp, to_currency, user_id";
+
+    @Param({"identity", "sequence"})
+    public String strategy;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private PreparedStatement nextBlock;
+    private long nextId;
+    private long blockEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:insert_" + strategy + ";DB_CLOSE_DELAY=-1", "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("create table tb_users (id bigint primary key, username varchar(255))");
+            ddl.execute("insert into tb_users values (1, 'benchmark')");
+            String columns = "from_currency varchar(3) not null, to_currency varchar(3) not null, "
+                    + "original_amount numeric(38,2) not null, converted_amount numeric(38,2) not null, "
+                    + "exchange_rate numeric(38,2), timestamp timestamp(6), "
+                    + "user_id bigint not null references tb_users(id)";
+            if ("identity".equals(strategy)) {
+                ddl.execute("create table conversion_history (id bigint generated by default as identity primary key, " + columns + ")");
+            } else {
+                ddl.execute("create sequence conversion_history_seq start with 1 increment by " + BATCH_SIZE);
+                ddl.execute("create table conversion_history (id bigint primary key, " + columns + ")");
+            }
+        }
+        connection.commit();
+
+        if ("identity".equals(strategy)) {
+            insert = connection.prepareStatement(
+                    "insert into conversion_history (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+        } else {
+            insert = connection.prepareStatement(
+                    "insert into conversion_history (" + COLUMNS + ", id) values (?, ?, ?, ?, ?, ?, ?, ?)");
+            nextBlock = connection.prepareStatement("select next value for conversion_history_seq");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("shutdown");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long saveTransaction() throws SQLException {
+        long sum = "identity".equals(strategy) ? insertWithIdentity() : insertWithSequence();
+        connection.commit();
+        return sum;
+    }
+
+    private long insertWithIdentity() throws SQLException {
+        long sum = 0;
+        for (int i = 0; i < ROWS; i++) {
+            bindRow(i);
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                sum += keys.getLong(1);
+            }
+        }
+        return sum;
+    }
+
+    private long insertWithSequence() throws SQLException {
+        long sum = 0;
+        for (int i = 0; i < ROWS; i++) {
+            long id = nextId();
+            bindRow(i);
+            insert.setLong(8, id);
+            insert.addBatch();
+            if ((i + 1) % BATCH_SIZE == 0) {
+                insert.executeBatch();
+            }
+            sum += id;
+        }
+        insert.executeBatch();
+        return sum;
+    }
+
+    // Mesmo comportamento do otimizador "pooled" do Hibernate: uma chamada à sequência por bloco de ids
+    private long nextId() throws SQLException {
+        if (nextId == blockEnd) {
+            try (ResultSet rs = nextBlock.executeQuery()) {
+                rs.next();
+                blockEnd = rs.getLong(1);
+            }
+            nextId = blockEnd - BATCH_SIZE;
+        }
+        return ++nextId;
+    }
+
+    private void bindRow(int i) throws SQLException {
+        insert.setBigDecimal(1, new BigDecimal("92.50"));
+        insert.setBigDecimal(2, new BigDecimal("0.93"));
+        insert.setString(3, "USD");
+        insert.setBigDecimal(4, BigDecimal.valueOf(100 + i));
+        insert.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+        insert.setString(6, "EUR");
+        insert.setLong(7, 1L);
+    }
+}
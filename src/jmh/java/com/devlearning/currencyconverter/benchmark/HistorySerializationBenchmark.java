@@ -0,0 +1,67 @@
+package com.devlearning.currencyconverter.benchmark;
+
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing {@link ConversionHistory} to JSON with Jackson, as done for the
+ * response of every conversion (one entity) and of the history endpoint (a list).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistorySerializationBenchmark {
+
+    private JsonMapper mapper;
+    private ConversionHistory single;
+    private List<ConversionHistory> page;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+        single = history(1);
+        page = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            page.add(history(i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOne() {
+        return mapper.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] serializeHundred() {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    private static ConversionHistory history(int i) {
+        return new ConversionHistory(
+                BenchmarkFixtures.user(),
+                "USD",
+                "EUR",
+                new BigDecimal("100.00").add(BigDecimal.valueOf(i)),
+                new BigDecimal("92.5000").add(BigDecimal.valueOf(i)),
+                new BigDecimal("0.925")
+        );
+    }
+}
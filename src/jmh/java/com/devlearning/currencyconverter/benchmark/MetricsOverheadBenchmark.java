@@ -0,0 +1,71 @@
+package com.devlearning.currencyconverter.benchmark;
+
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.service.ConversionMetrics;
+import com.devlearning.currencyconverter.service.ExchangeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the conversion stage timers ({@link ConversionMetrics}):
+ * <ul>
+ *   <li>{@code convert}: {@link ExchangeService#convertCurrency} with the timers recording into a
+ *   Prometheus registry ({@code registry=prometheus}) or into nothing ({@code registry=none}).
+ *   The difference is the overhead per conversion (four stage recordings).</li>
+ *   <li>{@code recordStage}: a single stage recording into a Prometheus registry.</li>
+ * </ul>
+ * The budget is a few microseconds per request; four recordings are expected to cost well under one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    @Param({"none", "prometheus"})
+    public String registry;
+
+    private ExchangeService exchangeService;
+    private ConversionMetrics stageMetrics;
+    private final BigDecimal amount = new BigDecimal("100.00");
+    private long start;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.authenticate();
+        MeterRegistry meterRegistry = "prometheus".equals(registry)
+                ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)
+                : new CompositeMeterRegistry();
+        exchangeService = BenchmarkFixtures.exchangeService(new BigDecimal("0.925"), meterRegistry);
+        stageMetrics = new ConversionMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        start = System.nanoTime();
+    }
+
+    @Benchmark
+    public ConversionHistory convert() {
+        return exchangeService.convertCurrency("USD", "EUR", amount);
+    }
+
+    @Benchmark
+    public long recordStage() {
+        return stageMetrics.stage(ConversionMetrics.Stage.MATH, start);
+    }
+}
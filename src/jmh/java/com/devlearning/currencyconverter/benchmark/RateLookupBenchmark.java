@@ -0,0 +1,104 @@
+package com.devlearning.currencyconverter.benchmark;
+
+import com.devlearning.currencyconverter.service.RateSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a cross-rate lookup in the primitive-indexed {@link RateSnapshot} table against the
+ * straightforward alternatives built on {@code HashMap<String, BigDecimal>}:
+ * <ul>
+ *   <li>{@code hashMapPairKey}: one map keyed by "FROM/TO", building the key on every lookup.</li>
+ *   <li>{@code hashMapBaseLegs}: one map of rates against the base, dividing on every lookup.</li>
+ *   <li>{@code rateSnapshot}: packed currency codes indexing a precomputed dense matrix.</li>
+ * </ul>
+ * Run with {@code -prof gc} to see the bytes allocated per lookup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RateLookupBenchmark {
+
+    private static final int CURRENCIES = 160;
+    private static final int PAIRS = 1024;
+
+    private RateSnapshot snapshot;
+    private Map<String, BigDecimal> pairRates;
+    private Map<String, BigDecimal> baseRates;
+
+    private String[] fromCodes;
+    private String[] toCodes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String[] codes = Currency.getAvailableCurrencies().stream()
+                .map(Currency::getCurrencyCode)
+                .filter(code -> !code.equals("USD"))
+                .sorted()
+                .limit(CURRENCIES - 1)
+                .toArray(String[]::new);
+
+        Random random = new Random(42);
+        baseRates = new HashMap<>();
+        baseRates.put("USD", BigDecimal.ONE);
+        for (String code : codes) {
+            baseRates.put(code, BigDecimal.valueOf(0.01 + random.nextDouble() * 500).round(new MathContext(6)));
+        }
+        snapshot = new RateSnapshot("USD", baseRates, Instant.now());
+
+        pairRates = new HashMap<>();
+        for (String from : baseRates.keySet()) {
+            for (String to : baseRates.keySet()) {
+                pairRates.put(from + "/" + to, snapshot.crossRate(from, to));
+            }
+        }
+
+        // Os códigos chegam como Strings separadas, tal como num ConversionRequest
+        String[] all = baseRates.keySet().toArray(String[]::new);
+        fromCodes = new String[PAIRS];
+        toCodes = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            fromCodes[i] = new String(all[random.nextInt(all.length)]);
+            toCodes[i] = new String(all[random.nextInt(all.length)]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal rateSnapshot() {
+        int i = next++ & (PAIRS - 1);
+        return snapshot.crossRate(fromCodes[i], toCodes[i]);
+    }
+
+    @Benchmark
+    public BigDecimal hashMapPairKey() {
+        int i = next++ & (PAIRS - 1);
+        return pairRates.get(fromCodes[i] + "/" + toCodes[i]);
+    }
+
+    @Benchmark
+    public BigDecimal hashMapBaseLegs() {
+        int i = next++ & (PAIRS - 1);
+        return baseRates.get(toCodes[i]).divide(baseRates.get(fromCodes[i]), RateSnapshot.RATE_PRECISION);
+    }
+}
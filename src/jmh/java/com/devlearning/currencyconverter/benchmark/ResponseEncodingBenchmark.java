@@ -0,0 +1,61 @@
+package com.devlearning.currencyconverter.benchmark;
+
+import com.devlearning.currencyconverter.config.CompactConversionHttpMessageConverter;
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.service.ConversionMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bytes and time per {@code POST /convert} response body: Jackson JSON vs the compact binary format
+ * ({@link CompactConversionHttpMessageConverter}). The time per encoding is the benchmark score; the
+ * sizes of this conversion are asserted in {@code CompactConversionHttpMessageConverterTest}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+    private JsonMapper mapper;
+    private ConversionHistory conversion;
+    private ByteArrayOutputStream buffer;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+        // Como uma conversão real: valor convertido arredondado aos cêntimos, taxa com 10 casas
+        BigDecimal rate = new BigDecimal("0.9251234567");
+        conversion = new ConversionHistory(BenchmarkFixtures.user(), "USD", "EUR",
+                new BigDecimal("1234.56"), ConversionMath.convert(new BigDecimal("1234.56"), rate, "EUR"), rate);
+        buffer = new ByteArrayOutputStream(64);
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return mapper.writeValueAsBytes(conversion);
+    }
+
+    @Benchmark
+    public byte[] binary() throws IOException {
+        buffer.reset();
+        CompactConversionHttpMessageConverter.write(conversion, buffer);
+        return buffer.toByteArray();
+    }
+}
@@ -1,25 +1,44 @@
 package com.devlearning.currencyconverter.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 /**
  * Configuration class for application-wide beans.
  * This class serves as a central place to define beans that will be managed by the Spring container.
+ * <p>
+ * It also enables {@link EnableScheduling scheduling}, used by background jobs such as the
+ * {@link RateRefreshScheduler}.
  */
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     /**
      * Creates a RestTemplate bean.
      * * RestTemplate is a synchronous client to perform HTTP requests.
-     * We inject this bean into our Service to communicate with the external ExchangeRate API.
+     * It is used by the blocking flavor of the ExchangeRate API client (see {@link UpstreamClientConfig}).
+     * <p>
+     * Runs on the JDK {@link HttpClient}, which keeps connections alive and reuses them between calls,
+     * with connect and read timeouts so a slow upstream cannot hold a request forever.
      *
-     * @return a new instance of RestTemplate
+     * @return a RestTemplate with pooled connections and timeouts
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(@Value("${currency.http.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                                     @Value("${currency.http.read-timeout-ms:5000}") long readTimeoutMillis) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        return new RestTemplate(requestFactory);
     }
-}
\ No newline at end of file
+}
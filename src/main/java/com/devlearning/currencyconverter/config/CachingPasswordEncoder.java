@@ -0,0 +1,111 @@
+package com.devlearning.currencyconverter.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PasswordEncoder} that remembers recent successful password checks, for clients that
+ * keep using HTTP Basic and would otherwise pay a full BCrypt verification on every request.
+ * <p>
+ * Entries are keyed by the stored hash and hold HMAC-SHA256(raw password + stored hash) under a
+ * random key generated when the encoder is created and never stored. The raw password is never kept
+ * in memory, and a heap dump gives no fast hash to test guesses against: without the key the MACs
+ * are useless, and the key does not survive the process. Changing a user's password changes the
+ * stored hash, so old entries stop matching. MACs are compared in constant time.
+ * Only successful checks are cached, for a limited time and up to a maximum number of entries.
+ * Encoding new passwords always goes to the delegate.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final long ttlNanos;
+    private final int maxEntries;
+    // Mac não é thread-safe: uma instância por thread, criada uma vez
+    private final ThreadLocal<Mac> macs;
+    // Hash guardado -> MAC da senha verificada e validade
+    private final ConcurrentHashMap<String, Verified> verified = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate   The real (slow) encoder, e.g. BCrypt.
+     * @param ttlSeconds How long a successful check is remembered.
+     * @param maxEntries Maximum number of remembered checks.
+     */
+    public CachingPasswordEncoder(PasswordEncoder delegate, long ttlSeconds, int maxEntries) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxEntries = maxEntries;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        SecretKeySpec macKey = new SecretKeySpec(key, MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> newMac(macKey));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        byte[] mac = mac(rawPassword, encodedPassword);
+        Verified entry = verified.get(encodedPassword);
+        long now = System.nanoTime();
+        if (entry != null && entry.expiresAt - now > 0 && MessageDigest.isEqual(entry.mac, mac)) {
+            return true;
+        }
+
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        if (matches) {
+            if (verified.size() >= maxEntries) {
+                // Remove as entradas expiradas; se ainda estiver cheio, recomeça do zero
+                verified.values().removeIf(expired -> expired.expiresAt - now <= 0);
+                if (verified.size() >= maxEntries) {
+                    verified.clear();
+                }
+            }
+            verified.put(encodedPassword, new Verified(mac, now + ttlNanos));
+        }
+        // Uma senha errada não apaga a entrada da senha certa do mesmo usuário
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private byte[] mac(CharSequence rawPassword, String encodedPassword) {
+        // doFinal deixa o Mac pronto para a próxima chamada
+        Mac mac = macs.get();
+        mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+        return mac.doFinal();
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+        }
+    }
+
+    private record Verified(byte[] mac, long expiresAt) {}
+}
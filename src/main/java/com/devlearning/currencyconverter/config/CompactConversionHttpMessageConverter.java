@@ -0,0 +1,189 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.service.CurrencyCodes;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes a {@link ConversionHistory} in a compact binary format, for internal services that call the
+ * API at high rates. Selected by content negotiation on the endpoints that list it in {@code produces}
+ * ({@code Accept: application/x-conversion}); JSON stays the default.
+ * <p>
+ * Layout (big-endian; 46 bytes for a saved conversion, against about 200 of JSON):
+ * <pre>
+ *   version    byte   (1)
+ *   flags      byte   (bit 0: id, bit 1: rate, bit 2: timestamp, bit 3: rateStale, bit 4: rateAgeSeconds)
+ *   id         long   (if present)
+ *   from, to   short  (packed codes, see {@link CurrencyCodes})
+ *   original   long   (amount × 10^{@value #AMOUNT_SCALE})
+ *   converted  long   (amount × 10^{@value #AMOUNT_SCALE}, rounded half-even)
+ *   rate       long   (rate × 10^{@value #RATE_SCALE}, if present)
+ *   timestamp  long   (server local date-time as epoch millis at UTC, if present)
+ *   ageSeconds long   (if present)
+ * </pre>
+ * Amounts and rate use the scales of the conversion_history columns. A value that does not fit in a
+ * long fails the response; such clients should use JSON.
+ */
+@Component
+public class CompactConversionHttpMessageConverter extends AbstractHttpMessageConverter<ConversionHistory> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-conversion";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    static final byte VERSION = 1;
+    static final int AMOUNT_SCALE = 4;
+    static final int RATE_SCALE = 10;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_RATE = 1 << 1;
+    private static final int HAS_TIMESTAMP = 1 << 2;
+    private static final int RATE_STALE = 1 << 3;
+    private static final int HAS_AGE = 1 << 4;
+
+    public CompactConversionHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ConversionHistory.class.isAssignableFrom(clazz);
+    }
+
+    // Só serve respostas: os pedidos continuam em JSON
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ConversionHistory readInternal(Class<? extends ConversionHistory> clazz, HttpInputMessage inputMessage) {
+        // Nunca chamado (canRead é falso); se for, é um pedido ilegível, não um erro do servidor
+        throw new HttpMessageNotReadableException("O formato binário só está disponível nas respostas; envie o pedido em JSON.", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(ConversionHistory conversion, MediaType contentType) {
+        return (long) encodedLength(conversion);
+    }
+
+    @Override
+    protected void writeInternal(ConversionHistory conversion, HttpOutputMessage outputMessage) throws IOException {
+        try {
+            write(conversion, outputMessage.getBody());
+        } catch (ArithmeticException e) {
+            throw new HttpMessageNotWritableException("Valor fora do intervalo do formato binário; use JSON.", e);
+        }
+    }
+
+    /**
+     * Writes one conversion in the binary format.
+     *
+     * @throws ArithmeticException if an amount or the rate does not fit in a long at its scale.
+     */
+    public static void write(ConversionHistory conversion, OutputStream output) throws IOException {
+        int flags = flags(conversion);
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeByte(VERSION);
+        out.writeByte(flags);
+        if ((flags & HAS_ID) != 0) {
+            out.writeLong(conversion.getId());
+        }
+        out.writeShort(CurrencyCodes.pack(conversion.getFromCurrency()));
+        out.writeShort(CurrencyCodes.pack(conversion.getToCurrency()));
+        out.writeLong(scaled(conversion.getOriginalAmount(), AMOUNT_SCALE));
+        out.writeLong(scaled(conversion.getConvertedAmount(), AMOUNT_SCALE));
+        if ((flags & HAS_RATE) != 0) {
+            out.writeLong(scaled(conversion.getExchangeRate(), RATE_SCALE));
+        }
+        if ((flags & HAS_TIMESTAMP) != 0) {
+            out.writeLong(conversion.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        if ((flags & HAS_AGE) != 0) {
+            out.writeLong(conversion.getRateAgeSeconds());
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads one conversion written by {@link #write}, for Java clients and tests.
+     */
+    public static Decoded read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Versão desconhecida do formato binário: " + version);
+        }
+        int flags = in.readByte();
+        Long id = (flags & HAS_ID) != 0 ? in.readLong() : null;
+        String from = CurrencyCodes.unpack(in.readShort());
+        String to = CurrencyCodes.unpack(in.readShort());
+        BigDecimal original = BigDecimal.valueOf(in.readLong(), AMOUNT_SCALE);
+        BigDecimal converted = BigDecimal.valueOf(in.readLong(), AMOUNT_SCALE);
+        BigDecimal rate = (flags & HAS_RATE) != 0 ? BigDecimal.valueOf(in.readLong(), RATE_SCALE) : null;
+        LocalDateTime timestamp = (flags & HAS_TIMESTAMP) != 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC)
+                : null;
+        Long ageSeconds = (flags & HAS_AGE) != 0 ? in.readLong() : null;
+        return new Decoded(id, from, to, original, converted, rate, timestamp, (flags & RATE_STALE) != 0, ageSeconds);
+    }
+
+    /**
+     * @return the number of bytes {@link #write} produces for the conversion.
+     */
+    public static int encodedLength(ConversionHistory conversion) {
+        int flags = flags(conversion);
+        return 2 + 4 + 16
+                + ((flags & HAS_ID) != 0 ? 8 : 0)
+                + ((flags & HAS_RATE) != 0 ? 8 : 0)
+                + ((flags & HAS_TIMESTAMP) != 0 ? 8 : 0)
+                + ((flags & HAS_AGE) != 0 ? 8 : 0);
+    }
+
+    private static int flags(ConversionHistory conversion) {
+        int flags = 0;
+        if (conversion.getId() != null) {
+            flags |= HAS_ID;
+        }
+        if (conversion.getExchangeRate() != null) {
+            flags |= HAS_RATE;
+        }
+        if (conversion.getTimestamp() != null) {
+            flags |= HAS_TIMESTAMP;
+        }
+        if (conversion.isRateStale()) {
+            flags |= RATE_STALE;
+        }
+        if (conversion.getRateAgeSeconds() != null) {
+            flags |= HAS_AGE;
+        }
+        return flags;
+    }
+
+    private static long scaled(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * A conversion read from the binary format.
+     */
+    public record Decoded(Long id, String fromCurrency, String toCurrency, BigDecimal originalAmount,
+                          BigDecimal convertedAmount, BigDecimal exchangeRate, LocalDateTime timestamp,
+                          boolean rateStale, Long rateAgeSeconds) {}
+}
@@ -0,0 +1,26 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.service.HistoryArchivalService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job that moves history older than the retention horizon to the archive,
+ * once a day (by default at 03:30, outside business hours).
+ */
+@Component
+@ConditionalOnProperty(name = "currency.archive.enabled", havingValue = "true")
+public class HistoryArchiveScheduler {
+
+    private final HistoryArchivalService historyArchivalService;
+
+    public HistoryArchiveScheduler(HistoryArchivalService historyArchivalService) {
+        this.historyArchivalService = historyArchivalService;
+    }
+
+    @Scheduled(cron = "${currency.archive.cron:0 30 3 * * *}")
+    public void archiveHistory() {
+        historyArchivalService.archiveExpiredHistory();
+    }
+}
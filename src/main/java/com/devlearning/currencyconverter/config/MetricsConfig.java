@@ -0,0 +1,76 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.dto.RateCacheStats;
+import com.devlearning.currencyconverter.service.HistoryWriter;
+import com.devlearning.currencyconverter.service.RateCache;
+import com.devlearning.currencyconverter.service.ResilientRateClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the counters the application already keeps as Micrometer meters (scraped from
+ * {@code /actuator/prometheus}).
+ * <p>
+ * The meters read the existing counters when they are scraped: nothing is added to the request path.
+ * <ul>
+ *   <li>{@code currency.rate.cache.requests{result=hit|miss|coalesced}}, {@code currency.rate.cache.loads{outcome=success|failure}},
+ *   {@code currency.rate.cache.evictions} and the gauge {@code currency.rate.cache.size}.</li>
+ *   <li>{@code currency.history.queue.pending}: rows waiting to be written in async write mode.</li>
+ *   <li>{@code currency.history.lost}: rows that could not be written, even one by one.</li>
+ *   <li>{@code currency.upstream.circuit.open}: 1 while the circuit breaker of the upstream is not closed.</li>
+ * </ul>
+ * The timers of the conversion stages are in {@link com.devlearning.currencyconverter.service.ConversionMetrics}
+ * and the upstream calls are observed by the {@link com.devlearning.currencyconverter.service.ObservedRateProvider}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder rateCacheMetrics(RateCache rateCache) {
+        return registry -> {
+            cacheCounter(registry, rateCache, "currency.rate.cache.requests", "result", "hit", RateCacheStats::hits);
+            cacheCounter(registry, rateCache, "currency.rate.cache.requests", "result", "miss", RateCacheStats::misses);
+            cacheCounter(registry, rateCache, "currency.rate.cache.requests", "result", "coalesced", RateCacheStats::coalescedMisses);
+            cacheCounter(registry, rateCache, "currency.rate.cache.loads", "outcome", "success", RateCacheStats::loads);
+            cacheCounter(registry, rateCache, "currency.rate.cache.loads", "outcome", "failure", RateCacheStats::loadFailures);
+            FunctionCounter.builder("currency.rate.cache.evictions", rateCache, cache -> cache.stats().evictions())
+                    .description("Entradas removidas do cache de taxas por excesso de capacidade")
+                    .register(registry);
+            Gauge.builder("currency.rate.cache.size", rateCache, cache -> cache.stats().size())
+                    .description("Pares de moedas no cache de taxas")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder historyWriterMetrics(HistoryWriter historyWriter) {
+        return registry -> {
+            Gauge.builder("currency.history.queue.pending", historyWriter, HistoryWriter::pending)
+                    .description("Linhas do histórico à espera de serem gravadas")
+                    .register(registry);
+            FunctionCounter.builder("currency.history.lost", historyWriter, HistoryWriter::lost)
+                    .description("Linhas do histórico que não puderam ser gravadas")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder upstreamCircuitMetrics(ResilientRateClient rateClient) {
+        return registry -> Gauge.builder("currency.upstream.circuit.open", rateClient, client -> client.isCircuitOpen() ? 1 : 0)
+                .description("1 enquanto o circuito da API externa não está fechado")
+                .register(registry);
+    }
+
+    private static void cacheCounter(MeterRegistry registry, RateCache rateCache,
+                                     String name, String tagKey, String tagValue, ToDoubleFunction<RateCacheStats> value) {
+        FunctionCounter.builder(name, rateCache, cache -> value.applyAsDouble(cache.stats()))
+                .tag(tagKey, tagValue)
+                .register(registry);
+    }
+}
@@ -0,0 +1,106 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.exception.RatesUnavailableException;
+import com.devlearning.currencyconverter.service.RateCache;
+import com.devlearning.currencyconverter.service.RateSnapshot;
+import com.devlearning.currencyconverter.service.RateSnapshotService;
+import com.devlearning.currencyconverter.service.RateSnapshotStore;
+import com.devlearning.currencyconverter.service.ResilientRateClient;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm start of the "pair" rate mode, the counterpart of {@link RateRefreshScheduler}.
+ * <p>
+ * With {@code currency.rates.persist} enabled, the stored rate table is restored during startup,
+ * before the application accepts requests, into:
+ * <ul>
+ *   <li>the {@link RateCache}, whose pairs are served as fresh for what is left of the cache TTL;</li>
+ *   <li>the last known rates of the {@link ResilientRateClient}, so that while the upstream is slow
+ *   or failing after a restart, conversions fall back to the stored rates (flagged stale, with the
+ *   age of the table) instead of failing;</li>
+ *   <li>the {@link RateSnapshotService}, for multi-currency conversions and quotes.</li>
+ * </ul>
+ * Every {@code currency.rates.refresh-seconds}, if any pair rate was fetched from the upstream in the
+ * meantime, a fresh table is downloaded (one call) and stored for the next restart. An idle instance
+ * makes no calls.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.rates.mode", havingValue = "pair", matchIfMissing = true)
+public class PairRateWarmStart {
+
+    private static final Logger log = LoggerFactory.getLogger(PairRateWarmStart.class);
+
+    private final RateSnapshotService rateSnapshotService;
+    private final RateSnapshotStore rateSnapshotStore;
+    private final RateCache rateCache;
+    private final ResilientRateClient rateClient;
+    private final boolean persist;
+
+    // Número de taxas obtidas da API externa na última gravação da tabela
+    private long fetchesAtLastSave;
+
+    public PairRateWarmStart(RateSnapshotService rateSnapshotService, RateSnapshotStore rateSnapshotStore,
+                             RateCache rateCache, ResilientRateClient rateClient,
+                             @Value("${currency.rates.persist:true}") boolean persist) {
+        this.rateSnapshotService = rateSnapshotService;
+        this.rateSnapshotStore = rateSnapshotStore;
+        this.rateCache = rateCache;
+        this.rateClient = rateClient;
+        this.persist = persist;
+    }
+
+    @PostConstruct
+    public void warmStart() {
+        if (!persist) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            RateSnapshot stored = rateSnapshotStore.load();
+            if (stored == null) {
+                log.info("Nenhuma tabela de taxas guardada; as taxas serão obtidas da API externa par a par.");
+                return;
+            }
+            boolean fresh = rateCache.seed(stored);
+            rateClient.seed(stored);
+            rateSnapshotService.publish(stored);
+            log.info("Tabela de taxas restaurada em {} ms: {} moedas, obtida há {} s ({}).",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    stored.getCurrencies().size(),
+                    Duration.between(stored.getFetchedAt(), Instant.now()).getSeconds(),
+                    fresh ? "servida do cache" : "só como recurso, desatualizada");
+        } catch (IOException | RuntimeException e) {
+            // Um arquivo inválido não impede o arranque: as taxas vêm da API externa
+            log.warn("Não foi possível restaurar a tabela de taxas guardada: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${currency.rates.refresh-seconds:300}",
+            fixedDelayString = "${currency.rates.refresh-seconds:300}", timeUnit = TimeUnit.SECONDS)
+    public void saveTable() {
+        long fetches = rateClient.successfulFetches();
+        if (!persist || fetches == fetchesAtLastSave) {
+            return;
+        }
+        fetchesAtLastSave = fetches;
+        if (!rateSnapshotService.refresh()) {
+            return;
+        }
+        try {
+            rateSnapshotStore.save(rateSnapshotService.current());
+        } catch (IOException | RatesUnavailableException e) {
+            log.warn("Não foi possível guardar a tabela de taxas: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.service.ExchangeRateApiClient;
+import com.devlearning.currencyconverter.service.FileRateProvider;
+import com.devlearning.currencyconverter.service.HedgedRateProvider;
+import com.devlearning.currencyconverter.service.ObservedRateProvider;
+import com.devlearning.currencyconverter.service.RateProvider;
+import com.devlearning.currencyconverter.service.RateTimeSeries;
+import com.devlearning.currencyconverter.service.RecordingRateProvider;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * Selects the {@link RateProvider} used by the rate cache and the rate snapshot.
+ * <p>
+ * {@code currency.rates.provider} is one of:
+ * <ul>
+ *   <li>{@code exchangerate-api} (default): the external API, through the client selected by
+ *   {@code currency.http.client} (see {@link UpstreamClientConfig}).</li>
+ *   <li>{@code file}: the local file {@code currency.rates.file}, without any network access.</li>
+ *   <li>{@code hedged}: the external API, hedged after {@code currency.rates.hedge-delay-ms} with a second
+ *   instance of the same API ({@code currency.rates.hedge-api-url}, e.g. a mirror or another account).</li>
+ * </ul>
+ * The hedge is always a live upstream, never the local file: a hedged answer is served and recorded in
+ * the {@link RateTimeSeries} as the rate in force now, which an old file could not honor.
+ * Every call to the selected provider is observed ({@link ObservedRateProvider}: latency and errors),
+ * and every rate obtained is recorded in the {@link RateTimeSeries}.
+ */
+@Configuration
+public class RateProviderConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RateProviderConfig.class);
+
+    // @Primary: o cliente da API externa também é um RateProvider, mas é este que deve ser injetado
+    @Bean
+    @Primary
+    public RateProvider rateProvider(@Qualifier(UpstreamClientConfig.UPSTREAM_CLIENT) RateProvider exchangeRateApiClient,
+                                     RateTimeSeries rateTimeSeries,
+                                     ObservationRegistry observationRegistry,
+                                     @Value("${currency.rates.provider:exchangerate-api}") String provider,
+                                     @Value("${currency.rates.file:./rates.properties}") String file,
+                                     @Value("${currency.rates.hedge-delay-ms:300}") long hedgeDelayMillis,
+                                     @Value("${currency.rates.hedge-max-threads:16}") int hedgeMaxThreads,
+                                     @Value("${currency.rates.hedge-api-url:}") String hedgeApiUrl,
+                                     @Value("${currency.rates.hedge-api-key:${currency.api.key:}}") String hedgeApiKey,
+                                     RestTemplate restTemplate) {
+        RateProvider selected = switch (provider) {
+            case "exchangerate-api" -> exchangeRateApiClient;
+            case "file" -> new FileRateProvider(Path.of(file));
+            case "hedged" -> new HedgedRateProvider(exchangeRateApiClient,
+                    hedgeClient(restTemplate, hedgeApiUrl, hedgeApiKey), hedgeDelayMillis, hedgeMaxThreads);
+            default -> throw new IllegalArgumentException("Fornecedor de taxas desconhecido: " + provider);
+        };
+        log.info("Fornecedor de taxas de câmbio: {}", selected.name());
+        return new RecordingRateProvider(new ObservedRateProvider(selected, observationRegistry), rateTimeSeries);
+    }
+
+    // A reserva é a mesma API noutro endereço; sem endereço o modo "hedged" não sobe
+    private static ExchangeRateApiClient hedgeClient(RestTemplate restTemplate, String apiUrl, String apiKey) {
+        if (apiUrl == null || apiUrl.isBlank()) {
+            throw new IllegalArgumentException("O modo hedged exige currency.rates.hedge-api-url (uma segunda instância da API de câmbio).");
+        }
+        return new ExchangeRateApiClient(restTemplate, apiUrl, apiKey);
+    }
+}
@@ -0,0 +1,80 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.service.RateSnapshot;
+import com.devlearning.currencyconverter.service.RateSnapshotService;
+import com.devlearning.currencyconverter.service.RateSnapshotStore;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that keeps the rate snapshot up to date in "snapshot" rate mode.
+ * <p>
+ * Runs once right after startup and then every {@code currency.rates.refresh-seconds},
+ * so the upstream API is never called on a request thread.
+ * <p>
+ * With {@code currency.rates.persist} enabled, every new snapshot is also written to the
+ * {@link RateSnapshotStore}, and the stored one is published during startup, before the
+ * application accepts requests: a restarted instance serves its first conversions from memory
+ * (flagged as stale if the stored table is old) instead of failing until the first refresh.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.rates.mode", havingValue = "snapshot")
+public class RateRefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RateRefreshScheduler.class);
+
+    private final RateSnapshotService rateSnapshotService;
+    private final RateSnapshotStore rateSnapshotStore;
+    private final boolean persist;
+
+    public RateRefreshScheduler(RateSnapshotService rateSnapshotService, RateSnapshotStore rateSnapshotStore,
+                                @Value("${currency.rates.persist:true}") boolean persist) {
+        this.rateSnapshotService = rateSnapshotService;
+        this.rateSnapshotStore = rateSnapshotStore;
+        this.persist = persist;
+    }
+
+    @PostConstruct
+    public void warmStart() {
+        if (!persist) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            RateSnapshot stored = rateSnapshotStore.load();
+            if (stored == null) {
+                log.info("Nenhuma tabela de taxas guardada; a primeira será obtida da API externa.");
+                return;
+            }
+            rateSnapshotService.publish(stored);
+            log.info("Tabela de taxas restaurada em {} ms: {} moedas, obtida há {} s.",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    stored.getCurrencies().size(),
+                    Duration.between(stored.getFetchedAt(), Instant.now()).getSeconds());
+        } catch (IOException | RuntimeException e) {
+            // Um arquivo inválido não impede o arranque: a tabela vem da próxima atualização
+            log.warn("Não foi possível restaurar a tabela de taxas guardada: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${currency.rates.refresh-seconds:300}", timeUnit = TimeUnit.SECONDS)
+    public void refreshRates() {
+        if (rateSnapshotService.refresh() && persist) {
+            try {
+                rateSnapshotStore.save(rateSnapshotService.current());
+            } catch (IOException e) {
+                log.warn("Não foi possível guardar a tabela de taxas: {}", e.getMessage());
+            }
+        }
+    }
+}
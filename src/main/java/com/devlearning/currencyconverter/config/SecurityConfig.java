@@ -1,12 +1,16 @@
 package com.devlearning.currencyconverter.config;
 
+import com.devlearning.currencyconverter.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import static org.springframework.security.config.Customizer.withDefaults;
 
@@ -15,15 +19,21 @@ import static org.springframework.security.config.Customizer.withDefaults;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/h2-console/**").permitAll() // Banco de dados
                 .requestMatchers("/api/auth/**").permitAll()   // <--- NOVA LINHA: Libera o Sign Up
+                // Saúde para o balanceador; as métricas só para administradores (o Prometheus usa Basic)
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/prometheus").hasRole("ADMIN")
                 .anyRequest().authenticated()                  // O resto continua trancado
             )
             .csrf(csrf -> csrf.disable())
             .headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()))
+            // Sem sessão: cada pedido traz o seu token (Bearer) ou as credenciais (Basic)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
             .httpBasic(withDefaults());
 
         return http.build();
@@ -31,8 +41,11 @@ public class SecurityConfig {
 
     // --- NOVA CONFIGURAÇÃO ---
     // Define o algoritmo de hash para as senhas (BCrypt é o padrão da indústria)
+    // As verificações bem-sucedidas ficam em cache por pouco tempo, para clientes Basic
+    // não pagarem um BCrypt completo em cada pedido
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${currency.auth.credential-cache-ttl-seconds:300}") long cacheTtlSeconds,
+                                           @Value("${currency.auth.credential-cache-size:10000}") int cacheSize) {
+        return new CachingPasswordEncoder(new BCryptPasswordEncoder(), cacheTtlSeconds, cacheSize);
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.service.ConversionStatsService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that adds the in-memory conversion counters to the daily statistics table
+ * every {@code currency.stats.flush-seconds}.
+ */
+@Component
+public class StatsFlushScheduler {
+
+    private final ConversionStatsService conversionStatsService;
+
+    public StatsFlushScheduler(ConversionStatsService conversionStatsService) {
+        this.conversionStatsService = conversionStatsService;
+    }
+
+    @Scheduled(initialDelayString = "${currency.stats.flush-seconds:10}", fixedDelayString = "${currency.stats.flush-seconds:10}",
+            timeUnit = TimeUnit.SECONDS)
+    public void flushStats() {
+        conversionStatsService.flush();
+    }
+}
@@ -0,0 +1,54 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.service.AuthenticatedUser;
+import com.devlearning.currencyconverter.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying "Authorization: Bearer {token}".
+ * <p>
+ * Tokens are verified by the {@link TokenService} (one HMAC, no database access). Requests without
+ * a bearer token go on to HTTP Basic; requests with an invalid token stay unauthenticated and are
+ * rejected with 401 by the rest of the security chain.
+ * <p>
+ * Not a Spring bean on purpose: it is added to the security chain in {@link SecurityConfig} only,
+ * so Spring Boot does not also register it as a plain servlet filter.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            AuthenticatedUser user = tokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken.authenticated(
+                        user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.role())));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,104 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.service.ExchangeRateApiClient;
+import com.devlearning.currencyconverter.service.RateProvider;
+import com.devlearning.currencyconverter.service.ReactiveExchangeRateApiClient;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * HTTP clients used to call the external ExchangeRate API.
+ * <p>
+ * {@code currency.http.client} selects the flavor of the upstream client, the {@link RateProvider} bean
+ * named {@value #UPSTREAM_CLIENT}:
+ * <ul>
+ *   <li>{@code blocking} (default): {@link ExchangeRateApiClient} on the {@link RestTemplate} of
+ *   {@link AppConfig}, on the JDK HttpClient.
+ *   The calling thread waits for the response, which is cheap when request threads are virtual
+ *   ({@code spring.threads.virtual.enabled}, Java 21+).</li>
+ *   <li>{@code reactive}: {@link ReactiveExchangeRateApiClient} on a {@link WebClient} on Reactor Netty,
+ *   with a bounded connection pool and a fixed number of event-loop threads, however many calls are
+ *   in flight.</li>
+ * </ul>
+ * Both flavors apply the same connect and read timeouts, so a slow upstream can no longer hold a
+ * request forever.
+ */
+@Configuration
+public class UpstreamClientConfig {
+
+    /** Name of the upstream client bean, whichever its flavor. */
+    public static final String UPSTREAM_CLIENT = "exchangeRateApiClient";
+
+    private final String apiUrl;
+    private final String apiKey;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+
+    public UpstreamClientConfig(@Value("${currency.api.url}") String apiUrl,
+                                @Value("${currency.api.key:}") String apiKey,
+                                @Value("${currency.http.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                                @Value("${currency.http.read-timeout-ms:5000}") long readTimeoutMillis) {
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.connectTimeout = Duration.ofMillis(connectTimeoutMillis);
+        this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+    }
+
+    @Bean(UPSTREAM_CLIENT)
+    @ConditionalOnProperty(name = "currency.http.client", havingValue = "blocking", matchIfMissing = true)
+    public ExchangeRateApiClient exchangeRateApiClient(RestTemplate restTemplate) {
+        return new ExchangeRateApiClient(restTemplate, apiUrl, apiKey);
+    }
+
+    // --- Versão reativa ---
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "currency.http.client", havingValue = "reactive")
+    public ConnectionProvider upstreamConnectionProvider(@Value("${currency.http.max-connections:100}") int maxConnections) {
+        return ConnectionProvider.builder("exchange-rate-api")
+                .maxConnections(maxConnections)
+                // Com o pool cheio, espera por uma conexão livre no máximo o tempo de conexão
+                .pendingAcquireTimeout(connectTimeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = "currency.http.client", havingValue = "reactive")
+    public LoopResources upstreamLoopResources(@Value("${currency.http.io-threads:4}") int ioThreads) {
+        return LoopResources.create("exchange-rate-api", ioThreads, true);
+    }
+
+    @Bean(UPSTREAM_CLIENT)
+    @ConditionalOnProperty(name = "currency.http.client", havingValue = "reactive")
+    public ReactiveExchangeRateApiClient reactiveExchangeRateApiClient(ConnectionProvider upstreamConnectionProvider,
+                                                                       LoopResources upstreamLoopResources) {
+        return new ReactiveExchangeRateApiClient(
+                webClient(upstreamConnectionProvider, upstreamLoopResources, connectTimeout, readTimeout), apiUrl, apiKey);
+    }
+
+    /**
+     * Builds the WebClient of the reactive flavor. Also used by tests with their own pool and event loops.
+     */
+    public static WebClient webClient(ConnectionProvider connectionProvider, LoopResources loopResources,
+                                      Duration connectTimeout, Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .runOn(loopResources)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -1,13 +1,20 @@
 package com.devlearning.currencyconverter.controller;
 
+import com.devlearning.currencyconverter.dto.LoginRequest;
 import com.devlearning.currencyconverter.dto.RegisterRequest;
+import com.devlearning.currencyconverter.dto.TokenResponse;
 import com.devlearning.currencyconverter.model.User;
 import com.devlearning.currencyconverter.repository.UserRepository;
+import com.devlearning.currencyconverter.service.TokenService;
+import com.devlearning.currencyconverter.service.UserIdentityCache;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -15,10 +22,18 @@ public class AuthController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserIdentityCache userIdentityCache;
+    private final TokenService tokenService;
+    // Hash de uma senha que ninguém conhece: o login de um username inexistente também paga um BCrypt
+    private final String dummyHash;
 
-    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                          UserIdentityCache userIdentityCache, TokenService tokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userIdentityCache = userIdentityCache;
+        this.tokenService = tokenService;
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
     }
 
     @PostMapping("/signup")
@@ -42,6 +57,27 @@ public class AuthController {
 
         userRepository.save(newUser);
 
+        // 5. Garante que nenhum id antigo deste username fica em cache
+        userIdentityCache.evict(newUser.getUsername());
+
         return ResponseEntity.ok(Map.of("message", "Usuário registado com sucesso!"));
     }
+
+    @PostMapping("/login")
+    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+
+        // 1. Verifica as credenciais (o único BCrypt que o cliente paga até o token expirar)
+        //    Sem usuário, compara com o hash falso: a resposta demora o mesmo e não revela se o username existe
+        Optional<User> user = userRepository.findByUsername(request.username());
+        String password = request.password() != null ? request.password() : "";
+        boolean valid = passwordEncoder.matches(password, user.map(User::getPassword).orElse(dummyHash));
+        if (user.isEmpty() || request.password() == null || !valid) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "Erro: Username ou senha inválidos!"));
+        }
+
+        // 2. Emite o token assinado; os próximos pedidos usam "Authorization: Bearer <token>"
+        String token = tokenService.issue(user.get());
+        return ResponseEntity.ok(new TokenResponse(token, "Bearer", tokenService.getTtlSeconds()));
+    }
 }
\ No newline at end of file
@@ -1,13 +1,41 @@
 package com.devlearning.currencyconverter.controller;
 
+import com.devlearning.currencyconverter.config.CompactConversionHttpMessageConverter;
+import com.devlearning.currencyconverter.dto.BatchConversionResult;
 import com.devlearning.currencyconverter.dto.ConversionRequest;
+import com.devlearning.currencyconverter.dto.DailyConversionStatsView;
+import com.devlearning.currencyconverter.dto.HistoryFilter;
+import com.devlearning.currencyconverter.dto.HistoryPage;
+import com.devlearning.currencyconverter.dto.MultiConversionRequest;
+import com.devlearning.currencyconverter.dto.MultiConversionResult;
+import com.devlearning.currencyconverter.dto.RateCacheStats;
 import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.service.BatchConversionService;
+import com.devlearning.currencyconverter.service.ConversionStatsService;
 import com.devlearning.currencyconverter.service.ExchangeService;
+import com.devlearning.currencyconverter.service.MultiConversionService;
+import com.devlearning.currencyconverter.service.QuoteMatrixService;
+import com.devlearning.currencyconverter.service.StreamingConversionService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.validation.Valid;
 
@@ -19,28 +47,63 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/exchange")
 public class ExchangeController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ExchangeService exchangeService;
+    private final BatchConversionService batchConversionService;
+    private final StreamingConversionService streamingConversionService;
+    private final ConversionStatsService conversionStatsService;
+    private final MultiConversionService multiConversionService;
+    private final QuoteMatrixService quoteMatrixService;
 
     /**
-     * Constructor injection for the ExchangeService.
+     * Constructor injection for the services.
      *
-     * @param exchangeService the service containing business logic for currency operations.
+     * @param exchangeService            the service containing business logic for currency operations.
+     * @param batchConversionService     the service converting many items in a single request.
+     * @param streamingConversionService the service converting NDJSON streams of any size.
+     * @param conversionStatsService     the service holding the daily conversion statistics.
+     * @param multiConversionService     the service converting one amount into many currencies.
+     * @param quoteMatrixService         the service holding the serialized cross-rate matrix.
      */
-    public ExchangeController(ExchangeService exchangeService) {
+    public ExchangeController(ExchangeService exchangeService, BatchConversionService batchConversionService,
+                              StreamingConversionService streamingConversionService,
+                              ConversionStatsService conversionStatsService,
+                              MultiConversionService multiConversionService,
+                              QuoteMatrixService quoteMatrixService) {
         this.exchangeService = exchangeService;
+        this.batchConversionService = batchConversionService;
+        this.streamingConversionService = streamingConversionService;
+        this.conversionStatsService = conversionStatsService;
+        this.multiConversionService = multiConversionService;
+        this.quoteMatrixService = quoteMatrixService;
     }
 
     /**
      * Converts a specific amount from one currency to another.
      * <p>
-     * Endpoint: POST /api/exchange/convert
+     * Endpoint: POST /api/exchange/convert[?asOf=2025-01-15T10:00:00]
      * Expected JSON Body: { "fromCurrency": "USD", "toCurrency": "EUR", "amount": 100 }
+     * <p>
+     * With {@code asOf}, the amount is converted with the rate in force at that moment (audits)
+     * and nothing is saved in the history.
+     * <p>
+     * The response is JSON, or the compact binary format of {@link CompactConversionHttpMessageConverter}
+     * when the client sends {@code Accept: application/x-conversion}.
      *
      * @param request the DTO containing source currency, target currency, and amount.
+     * @param asOf    convert with the rate of this past moment (optional, ISO-8601, server time zone).
      * @return the transaction details including the exchange rate and converted amount.
      */
-    @PostMapping("/convert")
-    public ResponseEntity<ConversionHistory> convertCurrency(@Valid @RequestBody ConversionRequest request) {
+    // JSON primeiro: é o formato escolhido quando o cliente aceita qualquer um
+    @PostMapping(value = "/convert", produces = {MediaType.APPLICATION_JSON_VALUE, CompactConversionHttpMessageConverter.MEDIA_TYPE_VALUE})
+    public ResponseEntity<ConversionHistory> convertCurrency(
+            @Valid @RequestBody ConversionRequest request,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        if (asOf != null) {
+            return ResponseEntity.ok(exchangeService.convertCurrencyAsOf(
+                    request.fromCurrency(), request.toCurrency(), request.amount(), asOf));
+        }
         ConversionHistory result = exchangeService.convertCurrency(
                 request.fromCurrency(),
                 request.toCurrency(),
@@ -50,15 +113,147 @@ public class ExchangeController {
     }
 
     /**
-     * Retrieves the full history of conversion transactions.
+     * Converts a list of amounts in a single request (e.g. the line items of an invoice).
+     * <p>
+     * Endpoint: POST /api/exchange/convert/batch
+     * Expected JSON Body: [ { "fromCurrency": "USD", "toCurrency": "EUR", "amount": 100 }, ... ]
+     * <p>
+     * Items are validated individually: an invalid item is reported with its errors
+     * and does not prevent the other items from being converted.
+     *
+     * @param requests the items to convert.
+     * @return one result per item, in the same order as the request.
+     */
+    @PostMapping("/convert/batch")
+    public ResponseEntity<List<BatchConversionResult>> convertBatch(@RequestBody List<ConversionRequest> requests) {
+        return ResponseEntity.ok(batchConversionService.convertBatch(requests));
+    }
+
+    /**
+     * Converts one amount into many currencies (e.g. a price shown in every currency of a pricing page).
+     * <p>
+     * Endpoint: POST /api/exchange/convert/multi
+     * Expected JSON Body: { "fromCurrency": "USD", "amount": 100, "toCurrencies": ["EUR", "GBP", "JPY"] }
+     * <p>
+     * Without {@code toCurrencies}, the amount is converted into every supported currency. All targets
+     * use the same rate table and the request is recorded as a single history entry.
+     *
+     * @param request the source currency, amount and target currencies.
+     * @return one conversion per target currency, in request order.
+     */
+    @PostMapping("/convert/multi")
+    public ResponseEntity<MultiConversionResult> convertMulti(@Valid @RequestBody MultiConversionRequest request) {
+        return ResponseEntity.ok(multiConversionService.convert(
+                request.fromCurrency(), request.amount(), request.toCurrencies()));
+    }
+
+    /**
+     * Converts a newline-delimited JSON (NDJSON) stream of conversion requests, for inputs too
+     * large to be sent as a JSON array (e.g. end-of-day reconciliation).
+     * <p>
+     * Endpoint: POST /api/exchange/convert/stream?persist=true
+     * Expected Body (application/x-ndjson): one { "fromCurrency", "toCurrency", "amount" } object per line.
+     * <p>
+     * Results are streamed back as NDJSON, one line per input line, while the input is still being read.
+     *
+     * @param body     the raw request body.
+     * @param response the response the results are streamed to.
+     * @param persist  whether the conversions are saved in the history (default: true).
+     */
+    @PostMapping(value = "/convert/stream", consumes = NDJSON)
+    public void convertStream(InputStream body, HttpServletResponse response,
+                              @RequestParam(defaultValue = "true") boolean persist) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        BufferedReader input = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Writer output = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        streamingConversionService.convertStream(input, output, persist);
+    }
+
+    /**
+     * Retrieves the logged-in user's conversions, newest first, one page at a time.
+     * <p>
+     * Endpoint: GET /api/exchange/history?size=50&cursor=...&fromCurrency=USD&toCurrency=EUR
+     *           &since=2025-01-01T00:00:00&until=2025-02-01T00:00:00
      * <p>
-     * Endpoint: GET /api/exchange/history
+     * To read the next page, send the nextCursor of the current one (with the same filters).
      *
-     * @return a list of all past conversions saved in the database.
+     * @param cursor       the nextCursor of the previous page; omitted for the first page.
+     * @param size         rows per page (default: 50).
+     * @param fromCurrency only conversions from this currency (optional).
+     * @param toCurrency   only conversions to this currency (optional).
+     * @param since        only conversions at or after this date-time (optional, ISO-8601).
+     * @param until        only conversions before this date-time (optional, ISO-8601).
+     * @return the page and the cursor of the next one.
      */
     @GetMapping("/history")
-    public ResponseEntity<List<ConversionHistory>> getHistory() {
-        return ResponseEntity.ok(exchangeService.findAllHistoryForCurrentUser());
+    public ResponseEntity<HistoryPage> getHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String fromCurrency,
+            @RequestParam(required = false) String toCurrency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until) {
+        HistoryFilter filter = new HistoryFilter(fromCurrency, toCurrency, since, until);
+        return ResponseEntity.ok(exchangeService.findHistoryPage(cursor, size, filter));
+    }
+
+    /**
+     * Retrieves the logged-in user's conversion totals per day and currency pair.
+     * <p>
+     * Endpoint: GET /api/exchange/stats?since=2025-01-01&until=2025-01-31
+     * <p>
+     * Served from pre-aggregated daily totals: the cost depends on the number of days and pairs,
+     * not on the number of conversions.
+     *
+     * @param since first day (optional, ISO-8601; default: 29 days before until).
+     * @param until last day (optional, ISO-8601; default: today).
+     * @return one entry per day and pair, with count, totals and average rate.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<DailyConversionStatsView>> getStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate until) {
+        LocalDate last = until != null ? until : LocalDate.now();
+        LocalDate first = since != null ? since : last.minusDays(29);
+        return ResponseEntity.ok(conversionStatsService.findForCurrentUser(first, last));
+    }
+
+    /**
+     * Returns the cross rates between every supported currency (or the requested ones) of the current
+     * rate table, for front-ends that poll the rates.
+     * <p>
+     * Endpoint: GET /api/exchange/quotes[?currencies=USD,EUR,GBP]
+     * <p>
+     * The body is serialized once per rate table and carries a strong ETag: a poll sending it back in
+     * {@code If-None-Match} gets {@code 304 Not Modified} until the rates change. {@code Cache-Control}
+     * lets clients reuse the response until the next refresh is due.
+     *
+     * @param currencies the currencies of the matrix, in order (optional; default: every supported one).
+     * @return the matrix as JSON.
+     */
+    @GetMapping(value = "/quotes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getQuotes(@RequestParam(required = false) List<String> currencies) {
+        QuoteMatrixService.SerializedQuotes quotes = quoteMatrixService.quotes(currencies);
+        // Com o ETag na resposta, o Spring devolve 304 sem corpo quando o If-None-Match coincide
+        return ResponseEntity.ok()
+                .eTag(quotes.etag())
+                .cacheControl(CacheControl.maxAge(quoteMatrixService.maxAgeSeconds(quotes), TimeUnit.SECONDS).cachePrivate())
+                .body(quotes.body());
+    }
+
+    /**
+     * Exposes the rate cache counters (hits, misses, upstream loads and load time),
+     * used to tune the cache TTL against the upstream API quota.
+     * <p>
+     * Endpoint: GET /api/exchange/cache/stats
+     *
+     * @return the current cache statistics.
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<RateCacheStats> getCacheStats() {
+        return ResponseEntity.ok(exchangeService.getRateCacheStats());
     }
 
     /**
@@ -0,0 +1,32 @@
+package com.devlearning.currencyconverter.dto;
+
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Outcome of one item of a batch conversion.
+ * <p>
+ * Exactly one of {@code result} and {@code errors} is present: a failing item does not fail
+ * the rest of the batch, it only carries its own error messages.
+ *
+ * @param index  Position of the item in the request list or line in the stream (results keep the input order).
+ * @param result The saved transaction, when the item was converted.
+ * @param errors Field name to error message, when the item was rejected.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchConversionResult(
+    long index,
+    ConversionHistory result,
+    Map<String, String> errors
+) {
+
+    public static BatchConversionResult success(long index, ConversionHistory result) {
+        return new BatchConversionResult(index, result, null);
+    }
+
+    public static BatchConversionResult failure(long index, Map<String, String> errors) {
+        return new BatchConversionResult(index, null, errors);
+    }
+}
@@ -0,0 +1,28 @@
+package com.devlearning.currencyconverter.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a {@code ConversionHistory} row, as returned by the history endpoint.
+ * <p>
+ * Built directly by the query (JPQL constructor expression): the entity and its User are never
+ * loaded, so listing the history does not touch the users table nor expose the password hash.
+ *
+ * @param id              The transaction id.
+ * @param fromCurrency    Source currency code.
+ * @param toCurrency      Target currency code.
+ * @param originalAmount  The amount converted.
+ * @param convertedAmount The result of the conversion.
+ * @param exchangeRate    The rate used.
+ * @param timestamp       When the conversion happened.
+ */
+public record ConversionHistoryView(
+    Long id,
+    String fromCurrency,
+    String toCurrency,
+    BigDecimal originalAmount,
+    BigDecimal convertedAmount,
+    BigDecimal exchangeRate,
+    LocalDateTime timestamp
+) {}
@@ -0,0 +1,25 @@
+package com.devlearning.currencyconverter.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Conversion totals of one day and currency pair for the logged-in user.
+ *
+ * @param date                 The day (server time zone).
+ * @param fromCurrency         Source currency code.
+ * @param toCurrency           Target currency code.
+ * @param count                Number of conversions.
+ * @param totalOriginalAmount  Sum of the amounts converted.
+ * @param totalConvertedAmount Sum of the converted results.
+ * @param averageRate          Average rate of the conversions.
+ */
+public record DailyConversionStatsView(
+    LocalDate date,
+    String fromCurrency,
+    String toCurrency,
+    long count,
+    BigDecimal totalOriginalAmount,
+    BigDecimal totalConvertedAmount,
+    BigDecimal averageRate
+) {}
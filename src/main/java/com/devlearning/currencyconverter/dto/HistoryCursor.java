@@ -0,0 +1,42 @@
+package com.devlearning.currencyconverter.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the history (keyset pagination): the timestamp and id of the last row of a page.
+ * The next page contains the rows strictly older than this position, in (timestamp, id) order.
+ * <p>
+ * Sent to clients as an opaque base64url string, so the format can change without breaking them.
+ *
+ * @param timestamp Timestamp of the last row returned.
+ * @param id        Id of the last row returned (breaks ties between equal timestamps).
+ */
+public record HistoryCursor(LocalDateTime timestamp, Long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        return ENCODER.encodeToString((timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param value a cursor previously returned by the history endpoint.
+     * @return the decoded position.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static HistoryCursor decode(String value) {
+        try {
+            String decoded = new String(DECODER.decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf('|');
+            return new HistoryCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.valueOf(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+    }
+}
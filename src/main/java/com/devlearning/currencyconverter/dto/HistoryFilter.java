@@ -0,0 +1,18 @@
+package com.devlearning.currencyconverter.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters of the history endpoint. Null fields do not filter.
+ *
+ * @param fromCurrency Only conversions from this currency.
+ * @param toCurrency   Only conversions to this currency.
+ * @param since        Only conversions at or after this instant.
+ * @param until        Only conversions before this instant.
+ */
+public record HistoryFilter(
+    String fromCurrency,
+    String toCurrency,
+    LocalDateTime since,
+    LocalDateTime until
+) {}
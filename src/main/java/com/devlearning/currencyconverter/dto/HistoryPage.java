@@ -0,0 +1,14 @@
+package com.devlearning.currencyconverter.dto;
+
+import java.util.List;
+
+/**
+ * One page of the conversion history, newest first.
+ *
+ * @param items      The conversions of this page.
+ * @param nextCursor Cursor of the next (older) page, or null if this is the last page.
+ */
+public record HistoryPage(
+    List<ConversionHistoryView> items,
+    String nextCursor
+) {}
@@ -0,0 +1,28 @@
+package com.devlearning.currencyconverter.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) to map the JSON response of the "/latest/{BASE}" endpoint
+ * of the external ExchangeRate-API.
+ * <p>
+ * Unlike {@link ExchangeRateResponse}, which carries the rate of a single pair, this response
+ * carries the full rate table of every supported currency against one base currency.
+ *
+ * @param result          The status of the request (e.g., "success").
+ * @param baseCode        The base currency of the table (e.g., "USD").
+ * Mapped from the JSON field "base_code".
+ * @param conversionRates The value of one unit of the base currency in every supported currency.
+ * Mapped from the JSON field "conversion_rates".
+ */
+public record LatestRatesResponse(
+    String result,
+
+    @JsonProperty("base_code")
+    String baseCode,
+
+    @JsonProperty("conversion_rates")
+    Map<String, BigDecimal> conversionRates
+) {}
@@ -0,0 +1,3 @@
+package com.devlearning.currencyconverter.dto;
+
+public record LoginRequest(String username, String password) {}
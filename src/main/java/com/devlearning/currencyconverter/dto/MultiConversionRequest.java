@@ -0,0 +1,29 @@
+package com.devlearning.currencyconverter.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Request to convert one amount into many currencies.
+ *
+ * @param fromCurrency Source currency code.
+ * @param amount       The amount to convert.
+ * @param toCurrencies Target currency codes; omitted or empty for every supported currency.
+ */
+public record MultiConversionRequest(
+
+    @NotBlank(message = "A moeda de origem é obrigatória")
+    @Pattern(regexp = "[A-Z]{3}", message = "Use o código de 3 letras (ex: USD)")
+    String fromCurrency,
+
+    @NotNull(message = "O valor não pode ser vazio")
+    @DecimalMin(value = "0.01", message = "O valor deve ser maior que zero")
+    BigDecimal amount,
+
+    List<@NotNull(message = "A moeda de destino não pode ser vazia")
+         @Pattern(regexp = "[A-Z]{3}", message = "Use o código de 3 letras (ex: EUR)") String> toCurrencies
+) {}
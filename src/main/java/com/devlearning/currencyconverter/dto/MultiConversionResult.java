@@ -0,0 +1,36 @@
+package com.devlearning.currencyconverter.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One amount converted into many currencies, all with the rates of the same table.
+ *
+ * @param id             Id of the history entry recording the request.
+ * @param fromCurrency   Source currency code.
+ * @param originalAmount The amount converted.
+ * @param ratesFetchedAt When the rate table used for every target was fetched.
+ * @param rateStale      Whether that table could not be refreshed recently.
+ * @param rateAgeSeconds Age of the table in seconds, only when it is stale.
+ * @param conversions    One entry per target currency, in request order.
+ */
+public record MultiConversionResult(
+    Long id,
+    String fromCurrency,
+    BigDecimal originalAmount,
+    Instant ratesFetchedAt,
+    boolean rateStale,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long rateAgeSeconds,
+    List<Target> conversions
+) {
+
+    /**
+     * @param toCurrency      Target currency code.
+     * @param exchangeRate    Rate for one unit of the source currency.
+     * @param convertedAmount The amount in the target currency.
+     */
+    public record Target(String toCurrency, BigDecimal exchangeRate, BigDecimal convertedAmount) {}
+}
@@ -0,0 +1,24 @@
+package com.devlearning.currencyconverter.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Cross rates between a set of currencies, all from the same rate table.
+ * <p>
+ * {@code rates.get(i).get(j)} is the value of one unit of {@code currencies.get(i)} in
+ * {@code currencies.get(j)}. Rows are positional instead of keyed by currency to keep the
+ * body small (a full table has about 160 × 160 rates).
+ *
+ * @param base       Base currency of the rate table.
+ * @param fetchedAt  When the rate table was fetched from the upstream.
+ * @param currencies The currencies of the rows and columns, in order.
+ * @param rates      One row per source currency, one column per target currency.
+ */
+public record QuoteMatrix(
+    String base,
+    Instant fetchedAt,
+    List<String> currencies,
+    List<List<BigDecimal>> rates
+) {}
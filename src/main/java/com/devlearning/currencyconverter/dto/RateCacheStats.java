@@ -0,0 +1,27 @@
+package com.devlearning.currencyconverter.dto;
+
+/**
+ * Snapshot of the exchange rate cache counters.
+ * <p>
+ * Used to tune the cache TTL against the upstream API quota: a low hit ratio means the
+ * TTL is too short, while a high number of loads means we are burning quota.
+ *
+ * @param hits              Lookups served from memory.
+ * @param misses            Lookups that did not find a fresh entry.
+ * @param coalescedMisses   Misses that waited on a load already in progress instead of calling the API.
+ * @param loads             Successful calls to the upstream API.
+ * @param loadFailures      Failed calls to the upstream API.
+ * @param evictions         Entries removed because the cache was over capacity.
+ * @param averageLoadMillis Average time spent in the upstream API per load, in milliseconds.
+ * @param size              Number of currency pairs currently cached.
+ */
+public record RateCacheStats(
+    long hits,
+    long misses,
+    long coalescedMisses,
+    long loads,
+    long loadFailures,
+    long evictions,
+    double averageLoadMillis,
+    int size
+) {}
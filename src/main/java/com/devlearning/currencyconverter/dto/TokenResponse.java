@@ -0,0 +1,10 @@
+package com.devlearning.currencyconverter.dto;
+
+/**
+ * Response of a successful login.
+ *
+ * @param token     The signed token, to be sent as "Authorization: Bearer {token}".
+ * @param tokenType Always "Bearer".
+ * @param expiresIn Seconds until the token expires.
+ */
+public record TokenResponse(String token, String tokenType, long expiresIn) {}
@@ -57,4 +57,14 @@ public class GlobalExceptionHandler {
         
         return ResponseEntity.badRequest().body(error);
     }
+
+    // 5. Trata indisponibilidade das taxas (ex: tabela ainda não carregada após o arranque)
+    @ExceptionHandler(RatesUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleRatesUnavailable(RatesUnavailableException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Serviço de câmbio indisponível");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.devlearning.currencyconverter.exception;
+
+/**
+ * Thrown when no exchange rate can be served, e.g. the rate table has not been loaded yet
+ * after startup. Mapped to HTTP 503 by the {@link GlobalExceptionHandler}.
+ */
+public class RatesUnavailableException extends RuntimeException {
+
+    public RatesUnavailableException(String message) {
+        super(message);
+    }
+}
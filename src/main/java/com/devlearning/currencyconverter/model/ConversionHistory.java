@@ -1,5 +1,7 @@
 package com.devlearning.currencyconverter.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -9,17 +11,27 @@ import java.time.LocalDateTime;
  * <p>
  * This class maps directly to the "conversion_history" table in the database.
  * Each instance of this class corresponds to a single row in that table.
+ * <p>
+ * The schema is created by the Flyway migrations in {@code db/migration}; the mappings below
+ * (indexes, precision) mirror it. The (user_id, timestamp) index serves the paginated history
+ * of each user.
  */
 @Entity
-@Table(name = "conversion_history")
+@Table(name = "conversion_history", indexes = {
+        @Index(name = "idx_conversion_history_user_timestamp", columnList = "user_id, timestamp"),
+        @Index(name = "idx_conversion_history_pair", columnList = "from_currency, to_currency")
+})
 public class ConversionHistory {
 
     /**
      * The unique identifier for the transaction (Primary Key).
-     * Generated automatically by the database (Auto-Increment).
+     * Taken from a database sequence in blocks of {@code allocationSize} ids (pooled optimizer):
+     * unlike auto-increment, the id is known before the INSERT, so Hibernate can send the
+     * inserts in JDBC batches (see {@code hibernate.jdbc.batch_size}).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conversion_history_seq")
+    @SequenceGenerator(name = "conversion_history_seq", sequenceName = "conversion_history_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -39,19 +51,20 @@ public class ConversionHistory {
     /**
      * The initial monetary value before conversion.
      */
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal originalAmount;
 
     /**
      * The final calculated value after applying the exchange rate.
      */
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal convertedAmount;
 
     /**
      * The exchange rate used at the specific moment of the transaction.
      * Storing this is crucial for historical accuracy.
      */
+    @Column(precision = 19, scale = 10)
     private BigDecimal exchangeRate;
 
     /**
@@ -59,10 +72,30 @@ public class ConversionHistory {
      */
     private LocalDateTime timestamp;
 
-    @ManyToOne
+    /**
+     * The owner of the transaction. Loaded lazily and never serialized: conversions attach a
+     * reference proxy here (only the foreign key is needed), and the User carries the password hash.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="user_id", nullable = false)
+    @JsonIgnore
     private User user;
 
+    /**
+     * Whether the rate came from a table that could not be refreshed recently.
+     * Only informs the client of this response; it is not stored in the database.
+     */
+    @Transient
+    private boolean rateStale;
+
+    /**
+     * Age in seconds of a stale rate (how long ago it was fetched from the upstream).
+     * Null, and left out of the response, when the rate is current.
+     */
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long rateAgeSeconds;
+
 
     // --- Constructors ---
 
@@ -116,4 +149,10 @@ public class ConversionHistory {
 
     public User getUser(){return user;}
     public void setUser(User user){this.user=user;}
+
+    public boolean isRateStale() { return rateStale; }
+    public void setRateStale(boolean rateStale) { this.rateStale = rateStale; }
+
+    public Long getRateAgeSeconds() { return rateAgeSeconds; }
+    public void setRateAgeSeconds(Long rateAgeSeconds) { this.rateAgeSeconds = rateAgeSeconds; }
 }
\ No newline at end of file
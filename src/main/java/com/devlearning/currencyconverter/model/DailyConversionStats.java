@@ -0,0 +1,55 @@
+package com.devlearning.currencyconverter.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * JPA Entity holding the conversion totals of one user, day and currency pair.
+ * <p>
+ * Maps to the "daily_conversion_stats" table. Rows are never written row-by-row from requests:
+ * conversions are counted in memory and the totals are added to these rows periodically
+ * (see {@code ConversionStatsService}), so reading the statistics of a period costs one row per
+ * day and pair instead of one per conversion.
+ */
+@Entity
+@Table(name = "daily_conversion_stats")
+public class DailyConversionStats {
+
+    @EmbeddedId
+    private DailyConversionStatsId id;
+
+    @Column(nullable = false)
+    private long conversionCount;
+
+    @Column(nullable = false, precision = 38, scale = 4)
+    private BigDecimal totalOriginalAmount;
+
+    @Column(nullable = false, precision = 38, scale = 4)
+    private BigDecimal totalConvertedAmount;
+
+    /**
+     * Sum of the rates of every conversion, used to compute the average rate.
+     */
+    @Column(nullable = false, precision = 38, scale = 10)
+    private BigDecimal totalExchangeRate;
+
+    /**
+     * Default constructor required by JPA/Hibernate.
+     */
+    public DailyConversionStats() {}
+
+    public DailyConversionStats(DailyConversionStatsId id, long conversionCount, BigDecimal totalOriginalAmount,
+                                BigDecimal totalConvertedAmount, BigDecimal totalExchangeRate) {
+        this.id = id;
+        this.conversionCount = conversionCount;
+        this.totalOriginalAmount = totalOriginalAmount;
+        this.totalConvertedAmount = totalConvertedAmount;
+        this.totalExchangeRate = totalExchangeRate;
+    }
+
+    public DailyConversionStatsId getId() { return id; }
+    public long getConversionCount() { return conversionCount; }
+    public BigDecimal getTotalOriginalAmount() { return totalOriginalAmount; }
+    public BigDecimal getTotalConvertedAmount() { return totalConvertedAmount; }
+    public BigDecimal getTotalExchangeRate() { return totalExchangeRate; }
+}
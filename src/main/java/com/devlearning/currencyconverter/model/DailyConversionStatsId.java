@@ -0,0 +1,60 @@
+package com.devlearning.currencyconverter.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Composite key of {@link DailyConversionStats}: one row per user, day and currency pair.
+ * Immutable, so it is also used as the key of the in-memory counters.
+ */
+@Embeddable
+public class DailyConversionStatsId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false, length = 3)
+    private String fromCurrency;
+
+    @Column(nullable = false, length = 3)
+    private String toCurrency;
+
+    /**
+     * Default constructor required by JPA/Hibernate.
+     */
+    protected DailyConversionStatsId() {}
+
+    public DailyConversionStatsId(Long userId, LocalDate statDate, String fromCurrency, String toCurrency) {
+        this.userId = userId;
+        this.statDate = statDate;
+        this.fromCurrency = fromCurrency;
+        this.toCurrency = toCurrency;
+    }
+
+    public Long getUserId() { return userId; }
+    public LocalDate getStatDate() { return statDate; }
+    public String getFromCurrency() { return fromCurrency; }
+    public String getToCurrency() { return toCurrency; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DailyConversionStatsId other)) return false;
+        return Objects.equals(userId, other.userId)
+                && Objects.equals(statDate, other.statDate)
+                && Objects.equals(fromCurrency, other.fromCurrency)
+                && Objects.equals(toCurrency, other.toCurrency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, statDate, fromCurrency, toCurrency);
+    }
+}
@@ -0,0 +1,88 @@
+package com.devlearning.currencyconverter.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * JPA Entity recording one conversion of an amount into many currencies (see {@code MultiConversionService}).
+ * <p>
+ * Maps to the "multi_conversion" table: one row per request, however many target currencies it had.
+ * The rates of all targets are kept in a single text column ({@code "EUR=0.925;GBP=0.79"}), since
+ * they come from the same rate table; each converted amount is the original amount times its rate.
+ * These rows are not part of the per-pair history ({@link ConversionHistory}) nor of the daily statistics.
+ */
+@Entity
+@Table(name = "multi_conversion", indexes = {
+        @Index(name = "idx_multi_conversion_user_timestamp", columnList = "user_id, timestamp")
+})
+public class MultiConversion {
+
+    /** Capacity of the target_rates column. */
+    public static final int MAX_TARGET_RATES_LENGTH = 8000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "multi_conversion_seq")
+    @SequenceGenerator(name = "multi_conversion_seq", sequenceName = "multi_conversion_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 3)
+    private String fromCurrency;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal originalAmount;
+
+    @Column(nullable = false)
+    private int targetCount;
+
+    /**
+     * The rate of every target currency, as {@code CODE=rate} pairs separated by {@code ;}, in request order.
+     */
+    @Column(nullable = false, length = MAX_TARGET_RATES_LENGTH)
+    private String targetRates;
+
+    /**
+     * When the rate table used for every target was fetched from the upstream.
+     */
+    @Column(nullable = false)
+    private LocalDateTime ratesFetchedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+
+    /**
+     * Default constructor required by JPA/Hibernate.
+     */
+    public MultiConversion() {}
+
+    public MultiConversion(User user, String fromCurrency, BigDecimal originalAmount, int targetCount,
+                           String targetRates, LocalDateTime ratesFetchedAt) {
+        this.user = user;
+        this.fromCurrency = fromCurrency;
+        this.originalAmount = originalAmount;
+        this.targetCount = targetCount;
+        this.targetRates = targetRates;
+        this.ratesFetchedAt = ratesFetchedAt;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+
+    public User getUser() { return user; }
+
+    public String getFromCurrency() { return fromCurrency; }
+
+    public BigDecimal getOriginalAmount() { return originalAmount; }
+
+    public int getTargetCount() { return targetCount; }
+
+    public String getTargetRates() { return targetRates; }
+
+    public LocalDateTime getRatesFetchedAt() { return ratesFetchedAt; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
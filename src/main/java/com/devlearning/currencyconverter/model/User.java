@@ -6,8 +6,10 @@ import jakarta.persistence.*;
 @Table(name = "tb_users") // Evita conflito com a palavra reservada 'user' do SQL
 public class User {
 
+    // Sequência em vez de auto-incremento, para permitir inserts em lote (ver ConversionHistory)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_users_seq")
+    @SequenceGenerator(name = "tb_users_seq", sequenceName = "tb_users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
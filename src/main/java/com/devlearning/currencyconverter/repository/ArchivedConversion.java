@@ -0,0 +1,25 @@
+package com.devlearning.currencyconverter.repository;
+
+import com.devlearning.currencyconverter.dto.ConversionHistoryView;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One history row as moved to the archive: the projection returned to clients plus its owner.
+ */
+public record ArchivedConversion(
+    Long userId,
+    Long id,
+    String fromCurrency,
+    String toCurrency,
+    BigDecimal originalAmount,
+    BigDecimal convertedAmount,
+    BigDecimal exchangeRate,
+    LocalDateTime timestamp
+) {
+
+    public ConversionHistoryView toView() {
+        return new ConversionHistoryView(id, fromCurrency, toCurrency, originalAmount, convertedAmount, exchangeRate, timestamp);
+    }
+}
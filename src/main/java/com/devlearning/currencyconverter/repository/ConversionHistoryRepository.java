@@ -1,10 +1,19 @@
 package com.devlearning.currencyconverter.repository;
 
 import com.devlearning.currencyconverter.model.ConversionHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Data Access Layer (DAO).
@@ -17,10 +26,35 @@ import java.util.List;
  * - save(entity): Inserts a new record.
  * - findAll(): Retrieves all records.
  * - findById(id): Retrieves a specific record.
+ * <p>
+ * The paginated history query lives in {@link ConversionHistoryRepositoryCustom}.
  */
 @Repository
-public interface ConversionHistoryRepository extends JpaRepository<ConversionHistory, Long> {
+public interface ConversionHistoryRepository extends JpaRepository<ConversionHistory, Long>, ConversionHistoryRepositoryCustom {
     // No implementation logic is needed here. 
     // Spring Data JPA generates the implementation code at runtime (Proxy Pattern).
     List<ConversionHistory> findByUserUsername(String username);
+
+    /**
+     * Streams the rows of a user older than the cutoff, oldest first, for archiving.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.devlearning.currencyconverter.repository.ArchivedConversion(
+                h.user.id, h.id, h.fromCurrency, h.toCurrency, h.originalAmount, h.convertedAmount, h.exchangeRate, h.timestamp)
+            from ConversionHistory h
+            where h.user.id = :userId and h.timestamp < :cutoff
+            order by h.timestamp, h.id""")
+    Stream<ArchivedConversion> streamOlderThan(@Param("userId") Long userId, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Deletes the rows of a user older than the cutoff, once they are archived.
+     *
+     * @return the number of rows deleted.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ConversionHistory h where h.user.id = :userId and h.timestamp < :cutoff")
+    int deleteOlderThan(@Param("userId") Long userId, @Param("cutoff") LocalDateTime cutoff);
 }
\ No newline at end of file
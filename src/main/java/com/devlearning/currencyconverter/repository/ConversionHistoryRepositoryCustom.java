@@ -0,0 +1,26 @@
+package com.devlearning.currencyconverter.repository;
+
+import com.devlearning.currencyconverter.dto.ConversionHistoryView;
+import com.devlearning.currencyconverter.dto.HistoryCursor;
+import com.devlearning.currencyconverter.dto.HistoryFilter;
+
+import java.util.List;
+
+/**
+ * History queries that Spring Data cannot derive from a method name (the WHERE clause depends on
+ * which filters are present). Implemented by {@link ConversionHistoryRepositoryCustomImpl} and
+ * exposed through {@link ConversionHistoryRepository}.
+ */
+public interface ConversionHistoryRepositoryCustom {
+
+    /**
+     * Returns the conversions of a user, newest first, as projections.
+     *
+     * @param userId The owner of the conversions.
+     * @param filter Optional currency and date filters.
+     * @param after  Position of the last row of the previous page, or null for the first page.
+     * @param limit  Maximum number of rows returned.
+     * @return at most {@code limit} rows older than {@code after}.
+     */
+    List<ConversionHistoryView> findHistoryPage(Long userId, HistoryFilter filter, HistoryCursor after, int limit);
+}
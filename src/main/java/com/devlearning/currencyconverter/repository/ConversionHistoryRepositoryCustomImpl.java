@@ -0,0 +1,99 @@
+package com.devlearning.currencyconverter.repository;
+
+import com.devlearning.currencyconverter.dto.ConversionHistoryView;
+import com.devlearning.currencyconverter.dto.HistoryCursor;
+import com.devlearning.currencyconverter.dto.HistoryFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyset pagination over the history, served by the (user_id, timestamp) index.
+ * <p>
+ * Only the conditions of the filters actually present are added to the query, instead of
+ * "(:param is null or ...)" clauses that would keep the database from using the index.
+ * The user is matched on the foreign key column ({@code h.user.id}), without joining tb_users.
+ * <p>
+ * When the table has fewer rows than requested (the client reached rows older than the retention
+ * horizon), the page is completed from the {@link HistoryArchive}, so clients page through the
+ * table and the archive as one history.
+ */
+public class ConversionHistoryRepositoryCustomImpl implements ConversionHistoryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final HistoryArchive archive;
+
+    public ConversionHistoryRepositoryCustomImpl(HistoryArchive archive) {
+        this.archive = archive;
+    }
+
+    @Override
+    public List<ConversionHistoryView> findHistoryPage(Long userId, HistoryFilter filter, HistoryCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("""
+                select new com.devlearning.currencyconverter.dto.ConversionHistoryView(
+                    h.id, h.fromCurrency, h.toCurrency, h.originalAmount, h.convertedAmount, h.exchangeRate, h.timestamp)
+                from ConversionHistory h
+                where h.user.id = :userId""");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("userId", userId);
+
+        if (filter.fromCurrency() != null) {
+            jpql.append(" and h.fromCurrency = :fromCurrency");
+            parameters.put("fromCurrency", filter.fromCurrency());
+        }
+        if (filter.toCurrency() != null) {
+            jpql.append(" and h.toCurrency = :toCurrency");
+            parameters.put("toCurrency", filter.toCurrency());
+        }
+        if (filter.since() != null) {
+            jpql.append(" and h.timestamp >= :since");
+            parameters.put("since", filter.since());
+        }
+        if (filter.until() != null) {
+            jpql.append(" and h.timestamp < :until");
+            parameters.put("until", filter.until());
+        }
+        if (after != null) {
+            // Linhas estritamente depois do cursor na ordem (timestamp desc, id desc)
+            jpql.append(" and (h.timestamp < :afterTimestamp or (h.timestamp = :afterTimestamp and h.id < :afterId))");
+            parameters.put("afterTimestamp", after.timestamp());
+            parameters.put("afterId", after.id());
+        }
+        jpql.append(" order by h.timestamp desc, h.id desc");
+
+        TypedQuery<ConversionHistoryView> query = entityManager.createQuery(jpql.toString(), ConversionHistoryView.class);
+        parameters.forEach(query::setParameter);
+        List<ConversionHistoryView> rows = query.setMaxResults(limit).getResultList();
+        if (rows.size() >= limit) {
+            return rows;
+        }
+
+        List<ConversionHistoryView> archived = archive.read(userId, filter, after, limit);
+        if (archived.isEmpty()) {
+            return rows;
+        }
+        // Uma linha pode estar nos dois lados enquanto o arquivamento dela termina
+        List<ConversionHistoryView> merged = new ArrayList<>(rows.size() + archived.size());
+        Set<Long> seen = new HashSet<>();
+        for (ConversionHistoryView row : rows) {
+            seen.add(row.id());
+            merged.add(row);
+        }
+        for (ConversionHistoryView row : archived) {
+            if (seen.add(row.id())) {
+                merged.add(row);
+            }
+        }
+        merged.sort(HistoryArchive.NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+}
@@ -0,0 +1,47 @@
+package com.devlearning.currencyconverter.repository;
+
+import com.devlearning.currencyconverter.model.DailyConversionStats;
+import com.devlearning.currencyconverter.model.DailyConversionStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyConversionStatsRepository extends JpaRepository<DailyConversionStats, DailyConversionStatsId> {
+
+    /**
+     * Adds the given totals to an existing row, in the database (no read-modify-write).
+     *
+     * @return the number of rows updated: 0 when the row does not exist yet.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update DailyConversionStats s set
+                s.conversionCount = s.conversionCount + :count,
+                s.totalOriginalAmount = s.totalOriginalAmount + :originalAmount,
+                s.totalConvertedAmount = s.totalConvertedAmount + :convertedAmount,
+                s.totalExchangeRate = s.totalExchangeRate + :exchangeRate
+            where s.id = :id""")
+    int addTotals(@Param("id") DailyConversionStatsId id,
+                  @Param("count") long count,
+                  @Param("originalAmount") BigDecimal originalAmount,
+                  @Param("convertedAmount") BigDecimal convertedAmount,
+                  @Param("exchangeRate") BigDecimal exchangeRate);
+
+    // Percorre só a chave primária (user_id, stat_date, ...) do período pedido
+    @Query("""
+            select s from DailyConversionStats s
+            where s.id.userId = :userId and s.id.statDate between :since and :until
+            order by s.id.statDate, s.id.fromCurrency, s.id.toCurrency""")
+    List<DailyConversionStats> findForUser(@Param("userId") Long userId,
+                                           @Param("since") LocalDate since,
+                                           @Param("until") LocalDate until);
+}
@@ -0,0 +1,376 @@
+package com.devlearning.currencyconverter.repository;
+
+import com.devlearning.currencyconverter.dto.ConversionHistoryView;
+import com.devlearning.currencyconverter.dto.HistoryCursor;
+import com.devlearning.currencyconverter.dto.HistoryFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compressed file store for history rows moved out of the conversion_history table.
+ * <p>
+ * Layout: one directory per user and one gzip file per month,
+ * {@code {currency.archive.directory}/user-{id}/{yyyy-MM}-{n}.chz}. Each file holds the rows of a
+ * complete month in ascending (timestamp, id) order, in a compact binary format (about 46 bytes per
+ * row, about 26 after compression; see the README for sizes). Files are written to a temporary name,
+ * synced and then renamed, so a reader never sees a partial file. If a month is archived twice (the job stopped after writing the file but
+ * before deleting the rows), both files are read and duplicate ids are ignored.
+ * <p>
+ * Reading the archive of a user touches only the files of the months needed to fill a page, and
+ * stops as soon as the page is full. Files never change once written, so decoded months are kept in
+ * a small LRU cache (up to {@code currency.archive.cache-rows} rows in total): paging through a month
+ * decompresses it once, not once per page. Within a month, the cursor is found by binary search.
+ */
+@Component
+public class HistoryArchive {
+
+    private static final int MAGIC = 0x43484131; // "CHA1"
+    private static final String SUFFIX = ".chz";
+    // Cada linha é precedida por ROW; o arquivo termina com END
+    private static final byte ROW = 1;
+    private static final byte END = 0;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Mesma ordem da paginação: mais recentes primeiro
+    static final Comparator<ConversionHistoryView> NEWEST_FIRST =
+            Comparator.comparing(ConversionHistoryView::timestamp).thenComparing(ConversionHistoryView::id).reversed();
+
+    // Ordem dentro de cada arquivo: mais antigas primeiro
+    private static final Comparator<ConversionHistoryView> OLDEST_FIRST =
+            Comparator.comparing(ConversionHistoryView::timestamp).thenComparing(ConversionHistoryView::id);
+
+    private final Path directory;
+    private final int cacheRows;
+
+    // Meses já descomprimidos, do menos para o mais recentemente usado; guardado por si próprio
+    private final LinkedHashMap<Path, List<ConversionHistoryView>> decoded = new LinkedHashMap<>(16, 0.75f, true);
+    private int decodedRows;
+
+    /**
+     * @param directory Root directory of the archive.
+     * @param cacheRows Maximum number of decoded rows kept in memory, across months (0 disables the cache).
+     */
+    public HistoryArchive(@Value("${currency.archive.directory:./archive}") String directory,
+                          @Value("${currency.archive.cache-rows:100000}") int cacheRows) {
+        this.directory = Paths.get(directory);
+        this.cacheRows = cacheRows;
+    }
+
+    /**
+     * Starts writing the archive of one month of a user. Rows must be added in ascending
+     * (timestamp, id) order; nothing is visible to readers until {@link MonthWriter#commit()}.
+     *
+     * @param userId the owner of the rows.
+     * @param month  the month of every row that will be added.
+     */
+    public MonthWriter openMonth(Long userId, YearMonth month) throws IOException {
+        Path userDirectory = directory.resolve("user-" + userId);
+        Files.createDirectories(userDirectory);
+        long sequence = System.currentTimeMillis();
+        Path target;
+        do {
+            target = userDirectory.resolve(month + "-" + sequence++ + SUFFIX);
+        } while (Files.exists(target));
+        return new MonthWriter(target, userDirectory.resolve(target.getFileName() + ".tmp"));
+    }
+
+    /**
+     * Reads archived rows of a user, newest first, with the same filters and cursor as the history table.
+     *
+     * @param userId The owner of the rows.
+     * @param filter Optional currency and date filters.
+     * @param after  Only rows strictly older than this position (null: no limit).
+     * @param limit  Maximum number of rows returned.
+     */
+    public List<ConversionHistoryView> read(Long userId, HistoryFilter filter, HistoryCursor after, int limit) {
+        Path userDirectory = directory.resolve("user-" + userId);
+        if (!Files.isDirectory(userDirectory)) {
+            return List.of();
+        }
+
+        List<ConversionHistoryView> result = new ArrayList<>();
+        for (var entry : filesByMonth(userDirectory).descendingMap().entrySet()) {
+            YearMonth month = entry.getKey();
+            LocalDateTime monthEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+            if (filter.since() != null && !monthEnd.isAfter(filter.since())) {
+                break; // este mês e os seguintes (mais antigos) terminam antes do período pedido
+            }
+            if (!overlaps(month, filter, after)) {
+                continue;
+            }
+
+            List<ConversionHistoryView> rows = monthRows(entry.getValue());
+            // As linhas estão da mais antiga para a mais recente: começa na última antes do cursor e recua
+            for (int i = lastBefore(rows, after); i >= 0; i--) {
+                ConversionHistoryView row = rows.get(i);
+                if (filter.since() != null && row.timestamp().isBefore(filter.since())) {
+                    return result;
+                }
+                if (matches(row, filter, after)) {
+                    result.add(row);
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rows of a month, oldest first. A month archived twice has its files merged, without duplicate ids.
+     */
+    private List<ConversionHistoryView> monthRows(List<Path> files) {
+        if (files.size() == 1) {
+            return decode(files.get(0));
+        }
+        List<ConversionHistoryView> rows = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Path file : files) {
+            for (ConversionHistoryView row : decode(file)) {
+                if (seen.add(row.id())) {
+                    rows.add(row);
+                }
+            }
+        }
+        rows.sort(OLDEST_FIRST);
+        return rows;
+    }
+
+    // Índice da última linha estritamente anterior ao cursor (-1 se nenhuma)
+    private static int lastBefore(List<ConversionHistoryView> rows, HistoryCursor after) {
+        if (after == null) {
+            return rows.size() - 1;
+        }
+        ConversionHistoryView key = new ConversionHistoryView(after.id(), null, null, null, null, null, after.timestamp());
+        int index = Collections.binarySearch(rows, key, OLDEST_FIRST);
+        return index >= 0 ? index - 1 : -index - 2;
+    }
+
+    /**
+     * Returns the rows of one file, from the cache or decompressed and then cached.
+     */
+    private List<ConversionHistoryView> decode(Path file) {
+        synchronized (decoded) {
+            List<ConversionHistoryView> rows = decoded.get(file);
+            if (rows != null) {
+                return rows;
+            }
+        }
+        List<ConversionHistoryView> rows = List.copyOf(readFile(file));
+        synchronized (decoded) {
+            if (rows.size() <= cacheRows && decoded.putIfAbsent(file, rows) == null) {
+                decodedRows += rows.size();
+                // Descarta os meses usados há mais tempo até caber no limite
+                Iterator<List<ConversionHistoryView>> eldest = decoded.values().iterator();
+                while (decodedRows > cacheRows) {
+                    decodedRows -= eldest.next().size();
+                    eldest.remove();
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static TreeMap<YearMonth, List<Path>> filesByMonth(Path userDirectory) {
+        TreeMap<YearMonth, List<Path>> byMonth = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(userDirectory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                // "2025-01-1735689600000.chz" -> 2025-01
+                YearMonth month = YearMonth.parse(file.getFileName().toString().substring(0, 7));
+                byMonth.computeIfAbsent(month, m -> new ArrayList<>()).add(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o arquivo de histórico.", e);
+        }
+        return byMonth;
+    }
+
+    // Se o mês pode ter linhas antes do cursor e antes do fim do período pedido
+    private static boolean overlaps(YearMonth month, HistoryFilter filter, HistoryCursor after) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        if (after != null && start.isAfter(after.timestamp())) {
+            return false;
+        }
+        return filter.until() == null || start.isBefore(filter.until());
+    }
+
+    private static boolean matches(ConversionHistoryView row, HistoryFilter filter, HistoryCursor after) {
+        if (filter.fromCurrency() != null && !filter.fromCurrency().equals(row.fromCurrency())) return false;
+        if (filter.toCurrency() != null && !filter.toCurrency().equals(row.toCurrency())) return false;
+        if (filter.since() != null && row.timestamp().isBefore(filter.since())) return false;
+        if (filter.until() != null && !row.timestamp().isBefore(filter.until())) return false;
+        if (after != null) {
+            int byTime = row.timestamp().compareTo(after.timestamp());
+            return byTime < 0 || (byTime == 0 && row.id() < after.id());
+        }
+        return true;
+    }
+
+    private static List<ConversionHistoryView> readFile(Path file) {
+        List<ConversionHistoryView> rows = new ArrayList<>();
+        try (InputStream fileIn = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(fileIn, BUFFER_SIZE), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Formato desconhecido: " + file);
+            }
+            while (in.readByte() == ROW) {
+                rows.add(readRow(in));
+            }
+        } catch (EOFException e) {
+            throw new UncheckedIOException("Arquivo de histórico truncado: " + file, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o arquivo de histórico: " + file, e);
+        }
+        return rows;
+    }
+
+    // --- Formato de cada linha ---
+    // id (8) | segundos (8) | nanos (4) | moeda origem (3) | moeda destino (3) | 3 x BigDecimal
+
+    private static void writeRow(DataOutputStream out, ArchivedConversion row) throws IOException {
+        out.writeLong(row.id());
+        out.writeLong(row.timestamp().toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(row.timestamp().getNano());
+        out.write(row.fromCurrency().getBytes(StandardCharsets.US_ASCII), 0, 3);
+        out.write(row.toCurrency().getBytes(StandardCharsets.US_ASCII), 0, 3);
+        writeDecimal(out, row.originalAmount());
+        writeDecimal(out, row.convertedAmount());
+        writeDecimal(out, row.exchangeRate());
+    }
+
+    private static ConversionHistoryView readRow(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        byte[] codes = new byte[6];
+        in.readFully(codes);
+        return new ConversionHistoryView(
+                id,
+                new String(codes, 0, 3, StandardCharsets.US_ASCII),
+                new String(codes, 3, 3, StandardCharsets.US_ASCII),
+                readDecimal(in),
+                readDecimal(in),
+                readDecimal(in),
+                timestamp);
+    }
+
+    // escala (1) | tamanho (1) | valor sem escala (complemento de 2); tamanho 0 = nulo
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+            out.writeByte(0);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeByte(value.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readByte();
+        int length = in.readUnsignedByte();
+        if (length == 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    /**
+     * Writes one month file, streaming the rows to disk as they are added.
+     * Close without {@link #commit()} to discard it.
+     */
+    public static final class MonthWriter implements Closeable {
+
+        private final Path target;
+        private final Path temporary;
+        private final FileOutputStream fileOut;
+        private final GZIPOutputStream gzip;
+        private final DataOutputStream out;
+        private boolean committed;
+
+        private MonthWriter(Path target, Path temporary) throws IOException {
+            this.target = target;
+            this.temporary = temporary;
+            this.fileOut = new FileOutputStream(temporary.toFile());
+            this.gzip = new GZIPOutputStream(fileOut, BUFFER_SIZE);
+            this.out = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE));
+            out.writeInt(MAGIC);
+        }
+
+        /**
+         * Adds one row.
+         *
+         * @throws IllegalArgumentException if the row has no id or timestamp, or a currency is not a 3-letter code; nothing is written then,
+         *                                  and the writer can still be used.
+         */
+        public void add(ArchivedConversion row) throws IOException {
+            if (row.id() == null || row.timestamp() == null || !isCode(row.fromCurrency()) || !isCode(row.toCurrency())) {
+                throw new IllegalArgumentException("Linha do histórico incompleta, não pode ser arquivada: " + row.id());
+            }
+            out.writeByte(ROW);
+            writeRow(out, row);
+        }
+
+        private static boolean isCode(String currency) {
+            return currency != null && currency.length() == 3;
+        }
+
+        /**
+         * Finishes the file, forces it to disk and makes it visible to readers.
+         */
+        public void commit() throws IOException {
+            out.writeByte(END);
+            out.flush();
+            gzip.finish();
+            // O arquivo tem de estar no disco antes de as linhas serem apagadas da tabela
+            fileOut.getFD().sync();
+            fileOut.close();
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                fileOut.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
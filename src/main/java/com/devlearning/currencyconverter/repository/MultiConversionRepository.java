@@ -0,0 +1,9 @@
+package com.devlearning.currencyconverter.repository;
+
+import com.devlearning.currencyconverter.model.MultiConversion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MultiConversionRepository extends JpaRepository<MultiConversion, Long> {
+}
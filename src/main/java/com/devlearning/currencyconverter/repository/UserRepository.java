@@ -2,12 +2,18 @@ package com.devlearning.currencyconverter.repository;
 
 import com.devlearning.currencyconverter.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     // O Spring cria o SQL automaticamente: "SELECT * FROM tb_users WHERE username = ?"
     Optional<User> findByUsername(String username);
+
+    // Só os ids, sem carregar as entidades (usado pelo arquivamento do histórico)
+    @Query("select u.id from User u order by u.id")
+    List<Long> findAllIds();
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.devlearning.currencyconverter.service;
+
+import java.security.Principal;
+
+/**
+ * Principal of a request authenticated with a token.
+ * <p>
+ * It already carries the user id, so conversions can reference the user without
+ * looking it up in the database.
+ *
+ * @param id       The database id of the user.
+ * @param username The username.
+ * @param role     The role (e.g., "USER" or "ADMIN").
+ */
+public record AuthenticatedUser(Long id, String username, String role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,129 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.BatchConversionResult;
+import com.devlearning.currencyconverter.dto.ConversionRequest;
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.model.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts many amounts in a single request (e.g. the line items of an invoice).
+ * <p>
+ * Compared to calling the single conversion once per item, the batch:
+ * 1. Looks up the logged-in user once.
+ * 2. Resolves each distinct currency pair once, however many items use it.
+ * 3. Saves every transaction with a single saveAll (through the {@link HistoryWriter}).
+ * <p>
+ * Each item is validated on its own: invalid items are reported in the response
+ * without failing the rest of the batch.
+ * <p>
+ * The method is deliberately not transactional: resolving the pairs may call the upstream (with
+ * retries), and no database connection is held while it does. Only the final saveAll runs in a
+ * transaction, the repository's own.
+ */
+@Service
+public class BatchConversionService {
+
+    private final ExchangeService exchangeService;
+    private final HistoryWriter historyWriter;
+    private final Validator validator;
+    private final int maxBatchSize;
+
+    public BatchConversionService(ExchangeService exchangeService, HistoryWriter historyWriter, Validator validator,
+                                  @Value("${currency.batch.max-size:1000}") int maxBatchSize) {
+        this.exchangeService = exchangeService;
+        this.historyWriter = historyWriter;
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Converts every item of the batch.
+     *
+     * @param requests The items to convert.
+     * @return one result per item, in the same order as the input.
+     */
+    public List<BatchConversionResult> convertBatch(List<ConversionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("O lote de conversões está vazio.");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("O lote excede o limite de " + maxBatchSize + " conversões.");
+        }
+
+        // 1. O usuário é o mesmo para o lote inteiro: uma única consulta
+        User currentUser = exchangeService.currentUser();
+
+        BatchConversionResult[] results = new BatchConversionResult[requests.size()];
+        Map<String, PairOutcome> pairs = new HashMap<>();
+        List<ConversionHistory> toSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ConversionRequest request = requests.get(i);
+
+            // 2. Validação individual (mesmas regras do @Valid do endpoint simples)
+            Map<String, String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[i] = BatchConversionResult.failure(i, errors);
+                continue;
+            }
+
+            // 3. Cada par distinto é resolvido só uma vez
+            PairOutcome pair = pairs.computeIfAbsent(
+                    request.fromCurrency() + "/" + request.toCurrency(),
+                    key -> PairOutcome.resolve(exchangeService, request.fromCurrency(), request.toCurrency()));
+            if (!pair.resolved()) {
+                results[i] = BatchConversionResult.failure(i, Map.of("error", pair.error()));
+                continue;
+            }
+
+            ConversionHistory transaction = new ConversionHistory(
+                    currentUser,
+                    request.fromCurrency(),
+                    request.toCurrency(),
+                    request.amount(),
+                    ConversionMath.convert(request.amount(), pair.rate(), request.toCurrency()),
+                    pair.rate()
+            );
+            transaction.setRateStale(pair.stale());
+            transaction.setRateAgeSeconds(pair.ageSeconds());
+            toSave.add(transaction);
+            savedIndexes.add(i);
+        }
+
+        // 4. Todas as transações válidas são gravadas de uma vez, na transação do próprio saveAll
+        List<ConversionHistory> saved = historyWriter.saveAll(toSave);
+        for (int j = 0; j < saved.size(); j++) {
+            int index = savedIndexes.get(j);
+            ConversionHistory transaction = saved.get(j);
+            transaction.setRateStale(toSave.get(j).isRateStale());
+            transaction.setRateAgeSeconds(toSave.get(j).getRateAgeSeconds());
+            results[index] = BatchConversionResult.success(index, transaction);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private Map<String, String> validate(ConversionRequest request) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (request == null) {
+            errors.put("request", "O item do lote não pode ser vazio");
+            return errors;
+        }
+        for (ConstraintViolation<ConversionRequest> violation : validator.validate(request)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,77 @@
+package com.devlearning.currencyconverter.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal circuit breaker for the calls to the external API.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and calls are refused
+ * immediately for {@code openNanos}, instead of each request waiting for the upstream to time out.
+ * Then a single trial call is let through (half-open): success closes the circuit, failure
+ * opens it again for another period.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    /**
+     * @param failureThreshold Consecutive failures that open the circuit.
+     * @param openNanos        How long the circuit stays open before a trial call.
+     * @param clock            Source of {@link System#nanoTime()}-like readings.
+     */
+    CircuitBreaker(int failureThreshold, long openNanos, LongSupplier clock) {
+        if (failureThreshold < 1 || openNanos <= 0) {
+            throw new IllegalArgumentException("Limite de falhas e tempo de abertura do circuito devem ser positivos.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Tells whether a call may be made now. When the open period is over, only the first
+     * caller gets through as the trial call; the others keep being refused until it finishes.
+     * A caller that gets {@code true} must report the outcome, whatever it is, with
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openedAt >= openNanos) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // Já existe uma chamada de teste em curso
+                return false;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            consecutiveFailures = 0;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,146 @@
+package com.devlearning.currencyconverter.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Currency;
+
+/**
+ * The amount × rate calculation of every conversion, done in {@code long} fixed point.
+ * <p>
+ * The converted amount is rounded to the minor unit of the target currency (its ISO 4217 exponent:
+ * 2 for USD, 0 for JPY, 3 for BHD) with an explicit rounding mode, half-even by default, so every
+ * result has the scale of its currency instead of the sum of the scales of amount and rate.
+ * <p>
+ * Amount and rate are taken as {@code unscaled × 10^-scale} with their own scales, multiplied as longs
+ * and divided by a power of ten with the rounding applied on the remainder. The long core
+ * ({@link #multiply}) allocates nothing; the {@link BigDecimal} overloads only unwrap the operands and
+ * wrap the result, instead of building the full-scale product.
+ * <p>
+ * The result is exactly {@code amount.multiply(rate).setScale(exponent, mode)}. When the product does
+ * not fit in a long (about 9.2 × 10^18 in unscaled units, e.g. 1,000,000.00 at a 12-digit cross rate),
+ * the calculation falls back to {@link BigDecimal}, with the same result.
+ */
+public final class ConversionMath {
+
+    /** Rounding applied to converted amounts. */
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+
+    /** Returned by {@link #multiply} when the result does not fit in a long. */
+    public static final long OVERFLOW = Long.MIN_VALUE;
+
+    /** Exponent used for codes unknown to the JDK or without minor unit (e.g. XAU). */
+    static final int DEFAULT_EXPONENT = 2;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    // Expoente ISO 4217 de cada moeda, indexado pelo código compactado (ver CurrencyCodes)
+    private static final byte[] EXPONENTS = new byte[CurrencyCodes.CODE_SPACE];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+        Arrays.fill(EXPONENTS, (byte) DEFAULT_EXPONENT);
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            int code = CurrencyCodes.pack(currency.getCurrencyCode());
+            int digits = currency.getDefaultFractionDigits();
+            if (code != CurrencyCodes.INVALID && digits >= 0) {
+                EXPONENTS[code] = (byte) digits;
+            }
+        }
+    }
+
+    private ConversionMath() {}
+
+    /**
+     * @return the number of decimals of the minor unit of the currency (2 when unknown).
+     */
+    public static int exponent(String currency) {
+        int code = CurrencyCodes.pack(currency);
+        return code == CurrencyCodes.INVALID ? DEFAULT_EXPONENT : EXPONENTS[code];
+    }
+
+    /**
+     * Converts an amount into the target currency, rounded half-even to its minor unit.
+     *
+     * @param amount     The amount in the source currency.
+     * @param rate       The value of one unit of the source currency in the target currency.
+     * @param toCurrency The target currency code.
+     * @return the converted amount, with the scale of the target currency.
+     */
+    public static BigDecimal convert(BigDecimal amount, BigDecimal rate, String toCurrency) {
+        return convert(amount, rate, exponent(toCurrency), ROUNDING);
+    }
+
+    /**
+     * Returns {@code amount × rate} rounded to {@code exponent} decimals.
+     */
+    public static BigDecimal convert(BigDecimal amount, BigDecimal rate, int exponent, RoundingMode mode) {
+        // Caminho rápido: ambos cabem num long (até 18 dígitos) com escala não negativa
+        if (amount.precision() <= 18 && rate.precision() <= 18 && amount.scale() >= 0 && rate.scale() >= 0) {
+            long result = multiply(amount.unscaledValue().longValue(), rate.unscaledValue().longValue(),
+                    amount.scale() + rate.scale() - exponent, mode);
+            if (result != OVERFLOW) {
+                return BigDecimal.valueOf(result, exponent);
+            }
+        }
+        return amount.multiply(rate).setScale(exponent, mode);
+    }
+
+    /**
+     * Returns {@code amount × rate / 10^shift}, rounded with the given mode, using longs only.
+     * <p>
+     * With the amount and the rate as unscaled values, {@code shift} is
+     * {@code amountScale + rateScale - resultScale}; a negative shift multiplies by {@code 10^-shift}.
+     *
+     * @return the unscaled result, or {@link #OVERFLOW} if it (or the intermediate product) does not fit in a long.
+     * @throws ArithmeticException if the mode is {@link RoundingMode#UNNECESSARY} and rounding is needed.
+     */
+    public static long multiply(long amount, long rate, int shift, RoundingMode mode) {
+        if (shift >= POWERS_OF_TEN.length || shift <= -POWERS_OF_TEN.length) {
+            return OVERFLOW;
+        }
+        long product = amount * rate;
+        if (!fitsInLong(Math.multiplyHigh(amount, rate), product)) {
+            return OVERFLOW;
+        }
+        if (shift < 0) {
+            long factor = POWERS_OF_TEN[-shift];
+            long scaled = product * factor;
+            return fitsInLong(Math.multiplyHigh(product, factor), scaled) ? scaled : OVERFLOW;
+        }
+        return divide(product, POWERS_OF_TEN[shift], mode);
+    }
+
+    // O produto de 128 bits (high:low) cabe num long se high for só a extensão do sinal de low;
+    // Long.MIN_VALUE fica reservado para OVERFLOW
+    private static boolean fitsInLong(long high, long low) {
+        return high == (low >> 63) && low != Long.MIN_VALUE;
+    }
+
+    /**
+     * Divides by a positive divisor, rounding the quotient like {@link BigDecimal#setScale(int, RoundingMode)}.
+     */
+    static long divide(long dividend, long divisor, RoundingMode mode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // O quociente foi truncado em direção a zero; arredondar para longe de zero soma o sinal
+        int sign = dividend < 0 ? -1 : 1;
+        int half = Long.compare(Math.abs(remainder), divisor - Math.abs(remainder));
+        boolean awayFromZero = switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> half >= 0;
+            case HALF_DOWN -> half > 0;
+            case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Arredondamento necessário.");
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
@@ -0,0 +1,56 @@
+package com.devlearning.currencyconverter.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers of the stages of a single conversion ({@link ExchangeService#convertCurrency}).
+ * <p>
+ * Exported as {@code currency.conversion.stage{stage=...}} with a percentile histogram, so
+ * p50/p95/p99 per stage can be computed from the Prometheus scrape. The timers are created once;
+ * recording a stage is a clock read and a histogram update, with no allocation. The cost of the
+ * instrumentation is measured by {@code MetricsOverheadBenchmark}.
+ */
+@Component
+public class ConversionMetrics {
+
+    /**
+     * The stages of a conversion, in the order they are timed. A same-currency conversion has no RATE stage.
+     */
+    public enum Stage {
+        /** Obtaining the rate (cache, snapshot or upstream call). */
+        RATE,
+        /** Resolving the logged-in user. */
+        USER,
+        /** Computing the converted amount and building the entity. */
+        MATH,
+        /** Saving (or queueing) the history row. */
+        SAVE
+    }
+
+    private final Timer[] timers = new Timer[Stage.values().length];
+
+    public ConversionMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            timers[stage.ordinal()] = Timer.builder("currency.conversion.stage")
+                    .description("Tempo de cada etapa de uma conversão")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Records a stage that started at {@code startNanos} and ends now.
+     *
+     * @return the current {@link System#nanoTime()}, to be used as the start of the next stage.
+     */
+    public long stage(Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        timers[stage.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+}
@@ -0,0 +1,204 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.DailyConversionStatsView;
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.model.DailyConversionStats;
+import com.devlearning.currencyconverter.model.DailyConversionStatsId;
+import com.devlearning.currencyconverter.repository.DailyConversionStatsRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily conversion statistics per user and currency pair, maintained incrementally.
+ * <p>
+ * Every conversion saved to the history is added to an in-memory counter for its (user, day, pair).
+ * A background job ({@link #flush()}) periodically adds the counters to the daily_conversion_stats
+ * table and starts new ones, so the database receives one UPDATE per active pair per interval
+ * instead of one per conversion. Reading the stats of a period reads one row per day and pair,
+ * plus the counters not yet flushed.
+ * <p>
+ * Counters not yet flushed are lost if the process dies abruptly; they are flushed on shutdown.
+ */
+@Service
+public class ConversionStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConversionStatsService.class);
+    private static final MathContext AVERAGE_PRECISION = new MathContext(12, RoundingMode.HALF_EVEN);
+    // Período máximo de uma consulta (mantém a resposta limitada)
+    static final int MAX_DAYS = 366;
+
+    private final DailyConversionStatsRepository repository;
+    private final UserIdentityCache userIdentityCache;
+    private final ConcurrentHashMap<DailyConversionStatsId, Accumulator> pending = new ConcurrentHashMap<>();
+
+    public ConversionStatsService(DailyConversionStatsRepository repository, UserIdentityCache userIdentityCache) {
+        this.repository = repository;
+        this.userIdentityCache = userIdentityCache;
+    }
+
+    /**
+     * Counts one conversion. Called for every row saved to the history.
+     *
+     * @param transaction the conversion being saved.
+     */
+    public void record(ConversionHistory transaction) {
+        if (transaction.getUser() == null || transaction.getUser().getId() == null || transaction.getTimestamp() == null) {
+            return;
+        }
+        DailyConversionStatsId key = new DailyConversionStatsId(
+                transaction.getUser().getId(),
+                transaction.getTimestamp().toLocalDate(),
+                transaction.getFromCurrency(),
+                transaction.getToCurrency());
+        add(key, 1, transaction.getOriginalAmount(), transaction.getConvertedAmount(), transaction.getExchangeRate());
+    }
+
+    /**
+     * Adds the in-memory counters to the database and starts new ones.
+     * A counter that fails to be written is put back and retried on the next flush.
+     */
+    @PreDestroy
+    public void flush() {
+        for (DailyConversionStatsId key : pending.keySet()) {
+            Accumulator accumulator = pending.remove(key);
+            if (accumulator == null) {
+                continue;
+            }
+            // Depois de fechado, nenhuma conversão é somada a este acumulador (vão para um novo)
+            Totals totals = accumulator.close();
+            try {
+                write(key, totals);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao gravar as estatísticas de {} em {}: {}", key.getUserId(), key.getStatDate(), e.getMessage());
+                add(key, totals.count, totals.originalAmount, totals.convertedAmount, totals.exchangeRate);
+            }
+        }
+    }
+
+    /**
+     * Returns the daily totals of the logged-in user between two days (inclusive).
+     *
+     * @param since First day.
+     * @param until Last day (at most {@value #MAX_DAYS} days after the first).
+     * @return one entry per day and currency pair with conversions, ordered by day and pair.
+     */
+    public List<DailyConversionStatsView> findForCurrentUser(LocalDate since, LocalDate until) {
+        if (since.isAfter(until)) {
+            throw new IllegalArgumentException("A data inicial deve ser anterior ou igual à data final.");
+        }
+        if (since.plusDays(MAX_DAYS).isBefore(until)) {
+            throw new IllegalArgumentException("O período máximo é de " + MAX_DAYS + " dias.");
+        }
+        Long userId = userIdentityCache.currentUser().getId();
+
+        Map<DailyConversionStatsId, Totals> byKey = new LinkedHashMap<>();
+        for (DailyConversionStats row : repository.findForUser(userId, since, until)) {
+            byKey.put(row.getId(), new Totals(row.getConversionCount(), row.getTotalOriginalAmount(),
+                    row.getTotalConvertedAmount(), row.getTotalExchangeRate()));
+        }
+        // Soma o que ainda não foi gravado
+        pending.forEach((key, accumulator) -> {
+            if (key.getUserId().equals(userId) && !key.getStatDate().isBefore(since) && !key.getStatDate().isAfter(until)) {
+                Totals unflushed = accumulator.snapshot();
+                byKey.merge(key, unflushed, Totals::plus);
+            }
+        });
+
+        List<DailyConversionStatsView> result = new ArrayList<>(byKey.size());
+        byKey.forEach((key, totals) -> {
+            if (totals.count > 0) {
+                result.add(new DailyConversionStatsView(key.getStatDate(), key.getFromCurrency(), key.getToCurrency(),
+                        totals.count, totals.originalAmount, totals.convertedAmount,
+                        totals.exchangeRate.divide(BigDecimal.valueOf(totals.count), AVERAGE_PRECISION)));
+            }
+        });
+        result.sort(Comparator.comparing(DailyConversionStatsView::date)
+                .thenComparing(DailyConversionStatsView::fromCurrency)
+                .thenComparing(DailyConversionStatsView::toCurrency));
+        return result;
+    }
+
+    private void add(DailyConversionStatsId key, long count, BigDecimal originalAmount,
+                     BigDecimal convertedAmount, BigDecimal exchangeRate) {
+        while (true) {
+            Accumulator accumulator = pending.computeIfAbsent(key, k -> new Accumulator());
+            if (accumulator.add(count, originalAmount, convertedAmount, exchangeRate)) {
+                return;
+            }
+            // Fechado por um flush em andamento: tenta de novo com um acumulador novo
+            pending.remove(key, accumulator);
+        }
+    }
+
+    private void write(DailyConversionStatsId key, Totals totals) {
+        if (totals.count == 0) {
+            return;
+        }
+        int updated = repository.addTotals(key, totals.count, totals.originalAmount, totals.convertedAmount, totals.exchangeRate);
+        if (updated == 0) {
+            repository.save(new DailyConversionStats(key, totals.count, totals.originalAmount,
+                    totals.convertedAmount, totals.exchangeRate));
+        }
+    }
+
+    /**
+     * Totals of one (user, day, pair), immutable.
+     */
+    private record Totals(long count, BigDecimal originalAmount, BigDecimal convertedAmount, BigDecimal exchangeRate) {
+
+        Totals plus(Totals other) {
+            return new Totals(count + other.count,
+                    originalAmount.add(other.originalAmount),
+                    convertedAmount.add(other.convertedAmount),
+                    exchangeRate.add(other.exchangeRate));
+        }
+    }
+
+    /**
+     * Mutable counter of one (user, day, pair). Once closed by a flush it rejects new conversions,
+     * so nothing is added to a counter whose totals were already taken.
+     */
+    private static final class Accumulator {
+
+        private long count;
+        private BigDecimal originalAmount = BigDecimal.ZERO;
+        private BigDecimal convertedAmount = BigDecimal.ZERO;
+        private BigDecimal exchangeRate = BigDecimal.ZERO;
+        private boolean closed;
+
+        synchronized boolean add(long count, BigDecimal originalAmount, BigDecimal convertedAmount, BigDecimal exchangeRate) {
+            if (closed) {
+                return false;
+            }
+            this.count += count;
+            this.originalAmount = this.originalAmount.add(originalAmount);
+            this.convertedAmount = this.convertedAmount.add(convertedAmount);
+            if (exchangeRate != null) {
+                this.exchangeRate = this.exchangeRate.add(exchangeRate);
+            }
+            return true;
+        }
+
+        synchronized Totals snapshot() {
+            return new Totals(count, originalAmount, convertedAmount, exchangeRate);
+        }
+
+        synchronized Totals close() {
+            closed = true;
+            return snapshot();
+        }
+    }
+}
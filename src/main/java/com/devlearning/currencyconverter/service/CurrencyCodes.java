@@ -0,0 +1,61 @@
+package com.devlearning.currencyconverter.service;
+
+/**
+ * Maps 3-letter ISO 4217 currency codes to small integers and back.
+ * <p>
+ * A code "ABC" is packed as {@code (A * 26 + B) * 26 + C}, with each letter counted from 'A'.
+ * Every valid code therefore fits in {@code [0, 17576)} (26³, which fits in a {@code short}),
+ * so rate tables can be plain arrays indexed by the packed code instead of hash maps keyed
+ * by {@code String}. Packing reads three chars: no hashing, no boxing and no allocation.
+ */
+public final class CurrencyCodes {
+
+    /** Number of distinct 3-letter codes (26³). */
+    public static final int CODE_SPACE = 26 * 26 * 26;
+
+    /** Returned by {@link #pack(CharSequence)} when the input is not three letters A-Z. */
+    public static final int INVALID = -1;
+
+    private CurrencyCodes() {}
+
+    /**
+     * Packs a currency code into an integer in {@code [0, CODE_SPACE)}.
+     *
+     * @param code a 3-letter uppercase code, e.g. "USD".
+     * @return the packed code, or {@link #INVALID} if the code is malformed.
+     */
+    public static int pack(CharSequence code) {
+        if (code == null || code.length() != 3) {
+            return INVALID;
+        }
+        int first = letter(code.charAt(0));
+        int second = letter(code.charAt(1));
+        int third = letter(code.charAt(2));
+        if ((first | second | third) < 0) {
+            return INVALID;
+        }
+        return (first * 26 + second) * 26 + third;
+    }
+
+    /**
+     * Reverses {@link #pack(CharSequence)}.
+     *
+     * @param packed a value in {@code [0, CODE_SPACE)}.
+     * @return the 3-letter code.
+     */
+    public static String unpack(int packed) {
+        if (packed < 0 || packed >= CODE_SPACE) {
+            throw new IllegalArgumentException("Código de moeda inválido: " + packed);
+        }
+        char[] letters = {
+                (char) ('A' + packed / 676),
+                (char) ('A' + packed / 26 % 26),
+                (char) ('A' + packed % 26)
+        };
+        return new String(letters);
+    }
+
+    private static int letter(char c) {
+        return c >= 'A' && c <= 'Z' ? c - 'A' : INVALID;
+    }
+}
@@ -0,0 +1,62 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.ExchangeRateResponse;
+import com.devlearning.currencyconverter.dto.LatestRatesResponse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The URLs and response handling of the external ExchangeRate-API, shared by the blocking
+ * ({@link ExchangeRateApiClient}) and reactive ({@link ReactiveExchangeRateApiClient}) clients.
+ * <p>
+ * A missing or unsuccessful response, or one without the rates, is a failure to obtain the rates:
+ * no client ever returns a null rate or table.
+ */
+final class ExchangeRateApi {
+
+    static final String COMMUNICATION_ERROR = "Erro ao comunicar com o serviço de câmbio.";
+    static final String INVALID_RESPONSE = "Falha ao obter dados da API externa.";
+
+    private final String apiUrl;
+    private final String apiKey;
+
+    /**
+     * @param apiUrl Base URL of the API (currency.api.url).
+     * @param apiKey Secret API key (currency.api.key, from secrets.properties).
+     */
+    ExchangeRateApi(String apiUrl, String apiKey) {
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+    }
+
+    String pairUrl(String from, String to) {
+        return apiUrl + apiKey + "/pair/" + from + "/" + to;
+    }
+
+    String latestUrl(String base) {
+        return apiUrl + apiKey + "/latest/" + base;
+    }
+
+    static String invalidPairMessage(String from, String to) {
+        return "Moeda inválida ou não suportada: " + from + " ou " + to;
+    }
+
+    static String invalidBaseMessage(String base) {
+        return "Moeda base inválida ou não suportada: " + base;
+    }
+
+    static BigDecimal rateOf(ExchangeRateResponse response) {
+        if (response == null || !"success".equals(response.result()) || response.conversionRate() == null) {
+            throw new RuntimeException(INVALID_RESPONSE);
+        }
+        return response.conversionRate();
+    }
+
+    static RateSnapshot snapshotOf(LatestRatesResponse response) {
+        if (response == null || !"success".equals(response.result()) || response.conversionRates() == null) {
+            throw new RuntimeException(INVALID_RESPONSE);
+        }
+        return new RateSnapshot(response.baseCode(), response.conversionRates(), Instant.now());
+    }
+}
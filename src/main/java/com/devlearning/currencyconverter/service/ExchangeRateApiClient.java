@@ -0,0 +1,97 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.ExchangeRateResponse;
+import com.devlearning.currencyconverter.dto.LatestRatesResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+
+/**
+ * Client for the external ExchangeRate-API.
+ * <p>
+ * Translates the API's responses and errors into our own types (URLs and response checks are in
+ * {@link ExchangeRateApi}, shared with the reactive flavor). It performs no caching: callers decide
+ * how often to call it.
+ * <p>
+ * This is the blocking flavor, on a {@link RestTemplate}; {@link ReactiveExchangeRateApiClient} is the
+ * WebClient flavor. The bean is created by {@code UpstreamClientConfig} according to
+ * {@code currency.http.client}.
+ * <p>
+ * It is the default {@link RateProvider}.
+ */
+public class ExchangeRateApiClient implements RateProvider {
+
+    private final RestTemplate restTemplate;
+    private final ExchangeRateApi api;
+
+    /**
+     * @param restTemplate The utility to make HTTP requests to the external API.
+     * @param apiUrl       Base URL of the API (currency.api.url).
+     * @param apiKey       Secret API key (currency.api.key, from secrets.properties).
+     */
+    public ExchangeRateApiClient(RestTemplate restTemplate, String apiUrl, String apiKey) {
+        this.restTemplate = restTemplate;
+        this.api = new ExchangeRateApi(apiUrl, apiKey);
+    }
+
+    @Override
+    public String name() {
+        return "exchangerate-api";
+    }
+
+    /**
+     * Calls the "/pair/{from}/{to}" endpoint for the rate of a single currency pair.
+     *
+     * @param from Source currency code.
+     * @param to   Target currency code.
+     * @return the exchange rate for one unit of {@code from} in {@code to}.
+     */
+    @Override
+    public BigDecimal fetchPairRate(String from, String to) {
+        // 1. Build the External API URL
+        String url = api.pairUrl(from, to);
+
+        ExchangeRateResponse response;
+
+        // --- INÍCIO DO TRY-CATCH ---
+        try {
+            // Tenta chamar a API. Se a moeda for "ZZZ", a API devolve erro 404 e o código pula para o CATCH.
+            response = restTemplate.getForObject(url, ExchangeRateResponse.class);
+
+        } catch (HttpClientErrorException e) {
+            // Captura erros 4xx (ex: 404 Not Found se a moeda não existir)
+            throw new IllegalArgumentException(ExchangeRateApi.invalidPairMessage(from, to));
+
+        } catch (Exception e) {
+            // Captura qualquer outro erro (ex: Sem internet, API fora do ar)
+            throw new RuntimeException(ExchangeRateApi.COMMUNICATION_ERROR);
+        }
+        // --- FIM DO TRY-CATCH ---
+
+        // 2. Validate the response (Segurança extra caso a API responda 200 OK mas com erro no corpo)
+        return ExchangeRateApi.rateOf(response);
+    }
+
+    /**
+     * Calls the "/latest/{base}" endpoint for the full rate table against one base currency.
+     *
+     * @param base The base currency (e.g., "USD").
+     * @return an immutable snapshot of every supported rate.
+     */
+    @Override
+    public RateSnapshot fetchSnapshot(String base) {
+        String url = api.latestUrl(base);
+
+        LatestRatesResponse response;
+        try {
+            response = restTemplate.getForObject(url, LatestRatesResponse.class);
+        } catch (HttpClientErrorException e) {
+            throw new IllegalArgumentException(ExchangeRateApi.invalidBaseMessage(base));
+        } catch (Exception e) {
+            throw new RuntimeException(ExchangeRateApi.COMMUNICATION_ERROR);
+        }
+
+        return ExchangeRateApi.snapshotOf(response);
+    }
+}
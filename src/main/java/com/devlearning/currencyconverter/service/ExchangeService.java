@@ -1,23 +1,29 @@
 package com.devlearning.currencyconverter.service;
 
-import com.devlearning.currencyconverter.dto.ExchangeRateResponse;
+import com.devlearning.currencyconverter.dto.ConversionHistoryView;
+import com.devlearning.currencyconverter.dto.HistoryCursor;
+import com.devlearning.currencyconverter.dto.HistoryFilter;
+import com.devlearning.currencyconverter.dto.HistoryPage;
+import com.devlearning.currencyconverter.dto.RateCacheStats;
 import com.devlearning.currencyconverter.model.ConversionHistory;
 import com.devlearning.currencyconverter.repository.ConversionHistoryRepository;
-import com.devlearning.currencyconverter.repository.UserRepository;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.devlearning.currencyconverter.model.User;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
-
-import org.springframework.web.client.HttpClientErrorException;
-// ...
 
 /**
  * Service layer responsible for business logic regarding currency exchange.
@@ -28,39 +34,65 @@ import org.springframework.web.client.HttpClientErrorException;
 @Service
 public class ExchangeService {
 
+    private static final Logger log = LoggerFactory.getLogger(ExchangeService.class);
+
+    // Tamanho máximo de uma página do histórico
+    static final int MAX_HISTORY_PAGE_SIZE = 500;
+
     // Dependencies
-    private final RestTemplate restTemplate;
+    private final ResilientRateClient rateClient;
     private final ConversionHistoryRepository repository;
-    private final UserRepository userRepository;
+    private final HistoryWriter historyWriter;
+    private final UserIdentityCache userIdentityCache;
+    private final RateCache rateCache;
+    private final RateSnapshotService rateSnapshotService;
+    private final RateTimeSeries rateTimeSeries;
+    private final ConversionMetrics metrics;
 
-    // Configuration values injected from application.properties
-    // This keeps the URL and Key flexible without hardcoding them in Java.
-    @Value("${currency.api.url}")
-    private String apiUrl;
+    // "pair": uma chamada /pair/ por par (com cache); "snapshot": tabela /latest/ inteira em memória
+    private final boolean snapshotMode;
 
-    @Value("${currency.api.key}")
-    private String apiKey;
+    // Mede o tempo até à primeira conversão servida após o arranque (ver o warm start das taxas)
+    private final AtomicBoolean firstConversionServed = new AtomicBoolean();
 
     /**
      * Constructor Injection.
-     * Spring automatically injects the configured RestTemplate and Repository beans.
-     * @param restTemplate The utility to make HTTP requests to the external API.
-     * @param repository   The Data Access Object to save transactions.
+     * Spring automatically injects the API client, cache and Repository beans.
+     * @param rateClient          The client used to call the external ExchangeRate API, with retries,
+     *                            circuit breaker and the last known rate of each pair.
+     * @param repository          The Data Access Object to read the history.
+     * @param historyWriter       Saves transactions, synchronously or in the background (currency.history.write-mode).
+     * @param userIdentityCache   Used to attach the logged-in user to each transaction without a query.
+     * @param rateCache           In-memory cache of exchange rates, used in "pair" mode.
+     * @param rateSnapshotService Holder of the full rate table, used in "snapshot" mode.
+     * @param rateTimeSeries      Past rates, used by conversions "as of" a past moment.
+     * @param metrics             Timers of the conversion stages.
+     * @param rateMode            Either "pair" or "snapshot", from the property currency.rates.mode.
      */
-    public ExchangeService(RestTemplate restTemplate, ConversionHistoryRepository repository,UserRepository userRepository) {
-        this.restTemplate = restTemplate;
+    public ExchangeService(ResilientRateClient rateClient, ConversionHistoryRepository repository, HistoryWriter historyWriter,
+                           UserIdentityCache userIdentityCache, RateCache rateCache, RateSnapshotService rateSnapshotService,
+                           RateTimeSeries rateTimeSeries, ConversionMetrics metrics, @Value("${currency.rates.mode:pair}") String rateMode) {
+        this.rateClient = rateClient;
         this.repository = repository;
-        this.userRepository = userRepository;
+        this.historyWriter = historyWriter;
+        this.userIdentityCache = userIdentityCache;
+        this.rateCache = rateCache;
+        this.rateSnapshotService = rateSnapshotService;
+        this.rateTimeSeries = rateTimeSeries;
+        this.metrics = metrics;
+        this.snapshotMode = "snapshot".equalsIgnoreCase(rateMode);
     }
 
     /**
      * Performs the full currency conversion process.
      * <p>
      * Flow:
-     * 1. Constructs the external API URL.
-     * 2. Calls the external API to get the current exchange rate.
-     * 3. Calculates the converted amount based on the rate.
-     * 4. Saves the transaction details to the local database.
+     * 1. Resolves the exchange rate (from the cache, the rate snapshot, or the external API).
+     * 2. Calls the external API only when the rate is not already in memory.
+     * 3. Calculates the converted amount based on the rate, rounded half-even to the minor unit
+     *    of the target currency ({@link ConversionMath}).
+     * 4. Saves the transaction details to the local database (in the background in async write mode,
+     *    in which case the returned entity has no id yet).
      *
      * @param from   Source currency code (e.g., "USD").
      * @param to     Target currency code (e.g., "EUR").
@@ -69,74 +101,186 @@ public class ExchangeService {
      */
     public ConversionHistory convertCurrency(String from, String to, BigDecimal amount) {
 
+        // Cada etapa é cronometrada (ConversionMetrics): t marca o início da etapa seguinte
+        long t = System.nanoTime();
+
         // --- OTIMIZAÇÃO: Se as moedas forem iguais, não chame a API ---
         if (from.equalsIgnoreCase(to)) {
-            // Pegar usuário (código repetido, mas necessário aqui)
-            String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-            User currentUser = userRepository.findByUsername(currentUsername)
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado!"));
-
+            User user = currentUser();
+            t = metrics.stage(ConversionMetrics.Stage.USER, t);
             ConversionHistory sameCurrencyTransaction = new ConversionHistory(
-                    currentUser,
+                    user,
                     from,
                     to,
                     amount,
                     amount, // Convertido é igual ao original
                     BigDecimal.ONE // Taxa é 1.0
             );
-            return repository.save(sameCurrencyTransaction);
+            t = metrics.stage(ConversionMetrics.Stage.MATH, t);
+            ConversionHistory saved = historyWriter.save(sameCurrencyTransaction);
+            metrics.stage(ConversionMetrics.Stage.SAVE, t);
+            return saved;
         }
 
-        // 1. Build the External API URL
-        String url = apiUrl + apiKey + "/pair/" + from + "/" + to;
+        // 1. Obtain the rate (from memory, or from the external API when needed)
+        ResolvedRate resolved = resolveRate(from, to);
+        BigDecimal rate = resolved.rate();
+        t = metrics.stage(ConversionMetrics.Stage.RATE, t);
 
-        ExchangeRateResponse response;
+        User user = currentUser();
+        t = metrics.stage(ConversionMetrics.Stage.USER, t);
 
-        // --- INÍCIO DO TRY-CATCH ---
-        try {
-            // Tenta chamar a API. Se a moeda for "ZZZ", a API devolve erro 404 e o código pula para o CATCH.
-            response = restTemplate.getForObject(url, ExchangeRateResponse.class);
-            
-        } catch (HttpClientErrorException e) {
-            // Captura erros 4xx (ex: 404 Not Found se a moeda não existir)
-            throw new IllegalArgumentException("Moeda inválida ou não suportada: " + from + " ou " + to);
-            
-        } catch (Exception e) {
-            // Captura qualquer outro erro (ex: Sem internet, API fora do ar)
-            throw new RuntimeException("Erro ao comunicar com o serviço de câmbio.");
-        }
-        // --- FIM DO TRY-CATCH ---
+        // 2. Perform the Calculation (rounded to the minor unit of the target currency)
+        BigDecimal convertedAmount = ConversionMath.convert(amount, rate, to);
 
-        // 3. Validate the response (Segurança extra caso a API responda 200 OK mas com erro no corpo)
-        if (response == null || !"success".equals(response.result())) {
-            throw new RuntimeException("Falha ao obter dados da API externa.");
-        }
-
-        // 4. Perform the Calculation
-        BigDecimal rate = response.conversionRate();
-        BigDecimal convertedAmount = amount.multiply(rate);
-
-        // Pega o usuário logado
-        String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-        User currentUser = userRepository.findByUsername(currentUsername)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado!"));
-
-        // 5. Create the Entity
+        // 3. Create the Entity
         ConversionHistory transaction = new ConversionHistory(
-                currentUser,
+                user,
                 from,
                 to,
                 amount,
                 convertedAmount,
                 rate
         );
+        transaction.setRateStale(resolved.stale());
+        transaction.setRateAgeSeconds(resolved.ageSeconds());
+        t = metrics.stage(ConversionMetrics.Stage.MATH, t);
+
+        // 4. Save and return
+        ConversionHistory saved = historyWriter.save(transaction);
+        metrics.stage(ConversionMetrics.Stage.SAVE, t);
+        saved.setRateStale(resolved.stale());
+        saved.setRateAgeSeconds(resolved.ageSeconds());
+        if (!firstConversionServed.get() && firstConversionServed.compareAndSet(false, true)) {
+            log.info("Primeira conversão servida {} ms após o arranque da JVM.", ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+        return saved;
+    }
+
+    /**
+     * Converts an amount with the rate that was in force at a past moment, for audits.
+     * <p>
+     * The rate comes from the {@link RateTimeSeries} (a binary search, without reading the history
+     * table). The conversion is not saved in the history; the returned entity has no id and carries
+     * the requested moment as its timestamp.
+     *
+     * @param from   Source currency code (e.g., "USD").
+     * @param to     Target currency code (e.g., "EUR").
+     * @param amount The amount to be converted.
+     * @param asOf   The moment whose rate is used (server time zone).
+     * @return the conversion, with the rate in force at {@code asOf}.
+     * @throws IllegalArgumentException if no rate of the pair had been recorded by then.
+     */
+    public ConversionHistory convertCurrencyAsOf(String from, String to, BigDecimal amount, LocalDateTime asOf) {
+        BigDecimal rate = from.equalsIgnoreCase(to)
+                ? BigDecimal.ONE
+                : rateTimeSeries.rateAsOf(from, to, asOf.atZone(ZoneId.systemDefault()).toInstant());
+        ConversionHistory conversion = new ConversionHistory(null, from, to, amount, ConversionMath.convert(amount, rate, to), rate);
+        conversion.setTimestamp(asOf);
+        return conversion;
+    }
+
+    /**
+     * Returns the current hit/miss/load counters of the rate cache.
+     *
+     * @return the cache statistics.
+     */
+    public RateCacheStats getRateCacheStats() {
+        return rateCache.stats();
+    }
+
+    /**
+     * Returns the logged-in user, to attach it to the transactions being saved.
+     * After the first request of a user this is a reference proxy and costs no query.
+     *
+     * @return the User of the authenticated principal.
+     */
+    User currentUser() {
+        return userIdentityCache.currentUser();
+    }
+
+    /**
+     * Resolves the rate of a pair according to the configured rate mode.
+     * <p>
+     * In "snapshot" mode the rate is derived from the rate table refreshed in the background,
+     * without any I/O; in "pair" mode it is fetched per pair and kept in the {@link RateCache}.
+     * If the upstream is unavailable in "pair" mode, the last rate fetched for the pair is used
+     * and flagged as stale, with its age.
+     */
+    ResolvedRate resolveRate(String from, String to) {
+        if (snapshotMode) {
+            RateSnapshot snapshot = rateSnapshotService.current();
+            boolean stale = rateSnapshotService.isStale(snapshot);
+            return new ResolvedRate(snapshot.crossRate(from, to), stale, stale ? ageSeconds(snapshot.getFetchedAt()) : null);
+        }
+        try {
+            return new ResolvedRate(rateCache.get(from, to, rateClient::fetchPairRate), false);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // API indisponível (circuito aberto ou tentativas esgotadas): usa a última taxa conhecida, se houver
+            ResilientRateClient.KnownRate last = rateClient.lastKnown(from, to);
+            if (last == null) {
+                throw e;
+            }
+            return new ResolvedRate(last.rate(), true, last.ageSeconds());
+        }
+    }
+
+    private static long ageSeconds(Instant fetchedAt) {
+        return Math.max(0, Duration.between(fetchedAt, Instant.now()).getSeconds());
+    }
+
+    /**
+     * A rate together with the flag telling whether it is outdated and, if so, its age in seconds.
+     */
+    record ResolvedRate(BigDecimal rate, boolean stale, Long ageSeconds) {
+
+        ResolvedRate(BigDecimal rate, boolean stale) {
+            this(rate, stale, null);
+        }
+    }
+
+    /**
+     * Retrieves one page of the logged-in user's history, newest first.
+     * <p>
+     * Pages are located by keyset (the cursor holds the timestamp and id of the last row seen),
+     * so every page costs the same however deep the client goes, and rows are read as
+     * projections without loading the User.
+     *
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size   Number of rows per page (1 to {@value #MAX_HISTORY_PAGE_SIZE}).
+     * @param filter Optional currency and date filters.
+     * @return the page, with the cursor of the next one (null on the last page).
+     */
+    public HistoryPage findHistoryPage(String cursor, int size, HistoryFilter filter) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_HISTORY_PAGE_SIZE + ".");
+        }
+        HistoryCursor after = cursor == null || cursor.isBlank() ? null : HistoryCursor.decode(cursor);
+        HistoryFilter normalized = new HistoryFilter(
+                upperCaseOrNull(filter.fromCurrency()),
+                upperCaseOrNull(filter.toCurrency()),
+                filter.since(),
+                filter.until());
+
+        // Pede uma linha a mais só para saber se existe próxima página
+        List<ConversionHistoryView> rows = repository.findHistoryPage(currentUser().getId(), normalized, after, size + 1);
+        if (rows.size() <= size) {
+            return new HistoryPage(rows, null);
+        }
+        List<ConversionHistoryView> items = rows.subList(0, size);
+        ConversionHistoryView last = items.get(size - 1);
+        return new HistoryPage(items, new HistoryCursor(last.timestamp(), last.id()).encode());
+    }
 
-        // 6. Save and return
-        return repository.save(transaction);
+    private static String upperCaseOrNull(String currency) {
+        return currency == null || currency.isBlank() ? null : currency.trim().toUpperCase();
     }
 
     /**
-     * Retrieves the complete history of all conversions performed.
+     * Retrieves the complete history of the logged-in user in one list.
+     * Loads every row: the history endpoint uses {@link #findHistoryPage} instead.
      *
      * @return A list of all ConversionHistory records.
      */
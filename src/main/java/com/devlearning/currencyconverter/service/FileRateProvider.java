@@ -0,0 +1,103 @@
+package com.devlearning.currencyconverter.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * {@link RateProvider} that reads the rates from a local properties file, for tests and
+ * environments without access to the external API.
+ * <p>
+ * The file holds the base currency and the rate of every currency against it:
+ * <pre>
+ * base=USD
+ * EUR=0.85
+ * BRL=5.10
+ * </pre>
+ * Cross rates are derived through the base, as in "snapshot" rate mode. The file is read again
+ * whenever its modification time changes, so rates can be edited without a restart.
+ */
+public class FileRateProvider implements RateProvider {
+
+    private final Path file;
+
+    private FileTime loadedVersion;
+    private RateSnapshot table;
+
+    /**
+     * @param file Path of the rates file.
+     */
+    public FileRateProvider(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public BigDecimal fetchPairRate(String from, String to) {
+        return table().crossRate(from, to);
+    }
+
+    @Override
+    public RateSnapshot fetchSnapshot(String base) {
+        RateSnapshot current = table();
+        if (!current.supports(base)) {
+            throw new IllegalArgumentException("Moeda base inválida ou não suportada: " + base);
+        }
+        // Tabela contra a base pedida, com a hora da leitura (o conteúdo do arquivo é a taxa em vigor)
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String currency : current.getCurrencies()) {
+            rates.put(currency, current.crossRate(base, currency));
+        }
+        return new RateSnapshot(base, rates, Instant.now());
+    }
+
+    private synchronized RateSnapshot table() {
+        try {
+            FileTime version = Files.getLastModifiedTime(file);
+            if (table == null || !version.equals(loadedVersion)) {
+                table = load();
+                loadedVersion = version;
+            }
+            return table;
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler o arquivo de taxas de câmbio: " + file);
+        }
+    }
+
+    private RateSnapshot load() throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        String base = properties.getProperty("base");
+        if (base == null || base.isBlank()) {
+            throw new RuntimeException("O arquivo de taxas de câmbio não define a moeda base: " + file);
+        }
+        base = base.trim().toUpperCase();
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        rates.put(base, BigDecimal.ONE);
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.equals("base")) {
+                try {
+                    rates.put(key.trim().toUpperCase(), new BigDecimal(properties.getProperty(key).trim()));
+                } catch (NumberFormatException e) {
+                    throw new RuntimeException("Taxa inválida para " + key + " no arquivo " + file);
+                }
+            }
+        }
+        return new RateSnapshot(base, rates, Instant.now());
+    }
+}
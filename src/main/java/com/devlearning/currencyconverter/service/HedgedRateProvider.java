@@ -0,0 +1,155 @@
+package com.devlearning.currencyconverter.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * {@link RateProvider} that sends hedged requests to two providers.
+ * <p>
+ * Every call goes to the primary provider first. If it has not answered after {@code hedgeDelayMillis}
+ * (or fails before that), the same call is sent to the secondary provider and the first successful
+ * answer wins; the slower call is left to finish in the background and its result is ignored.
+ * A slow primary therefore costs at most the hedge delay plus the secondary's latency, and only
+ * the slow calls (not every call) reach the secondary.
+ * <p>
+ * If both providers fail, the primary's error is thrown. A primary that rejects the request itself
+ * ({@link IllegalArgumentException}, e.g. an unsupported currency) is not hedged: the secondary would
+ * only repeat the same answer.
+ * <p>
+ * Calls run on a bounded pool of {@code maxThreads} threads. When every thread is busy the call is
+ * not hedged: the primary runs on the caller's thread, or the secondary is simply not asked, so a
+ * slow primary cannot make the pool grow without limit.
+ */
+public class HedgedRateProvider implements RateProvider, AutoCloseable {
+
+    private final RateProvider primary;
+    private final RateProvider secondary;
+    private final long hedgeDelayNanos;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * @param primary          Provider asked first.
+     * @param secondary        Provider asked when the primary is slow or fails.
+     * @param hedgeDelayMillis How long to wait for the primary before asking the secondary
+     *                         (a high percentile of the primary's latency, e.g. its p95).
+     * @param maxThreads       Maximum number of calls in flight on the pool, both providers included.
+     */
+    public HedgedRateProvider(RateProvider primary, RateProvider secondary, long hedgeDelayMillis, int maxThreads) {
+        if (hedgeDelayMillis < 0) {
+            throw new IllegalArgumentException("O atraso das requisições de reserva não pode ser negativo.");
+        }
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("O número de threads das requisições de reserva deve ser positivo.");
+        }
+        this.primary = primary;
+        this.secondary = secondary;
+        this.hedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis);
+        // No máximo maxThreads threads, descartadas quando ociosas; sem fila: se todas estão ocupadas, a tarefa é recusada
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "rate-provider-hedge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public String name() {
+        return "hedged(" + primary.name() + ", " + secondary.name() + ")";
+    }
+
+    @Override
+    public BigDecimal fetchPairRate(String from, String to) {
+        return hedge(provider -> provider.fetchPairRate(from, to));
+    }
+
+    @Override
+    public RateSnapshot fetchSnapshot(String base) {
+        return hedge(provider -> provider.fetchSnapshot(base));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T hedge(Function<RateProvider, T> call) {
+        CompletableFuture<T> primaryCall;
+        try {
+            primaryCall = CompletableFuture.supplyAsync(() -> call.apply(primary), executor);
+        } catch (RejectedExecutionException e) {
+            // Pool saturado: sem reserva, o primário é chamado na própria thread
+            return call.apply(primary);
+        }
+        try {
+            return primaryCall.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // Pedido inválido: o secundário daria a mesma resposta
+            if (e.getCause() instanceof IllegalArgumentException invalid) {
+                throw invalid;
+            }
+        } catch (TimeoutException e) {
+            // O primário está lento: pergunta também ao secundário
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Erro ao comunicar com o serviço de câmbio.");
+        }
+
+        CompletableFuture<T> secondaryCall;
+        try {
+            secondaryCall = CompletableFuture.supplyAsync(() -> call.apply(secondary), executor);
+        } catch (RejectedExecutionException e) {
+            // Pool saturado: fica só com o primário
+            return join(primaryCall);
+        }
+        return join(firstSuccess(primaryCall, secondaryCall));
+    }
+
+    /**
+     * Completes with the first successful result, or with the primary's error once both have failed.
+     */
+    private static <T> CompletableFuture<T> firstSuccess(CompletableFuture<T> primaryCall, CompletableFuture<T> secondaryCall) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        Runnable onFailure = () -> {
+            if (failures.incrementAndGet() == 2) {
+                primaryCall.whenComplete((value, error) -> result.completeExceptionally(error));
+            }
+        };
+        primaryCall.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                onFailure.run();
+            }
+        });
+        secondaryCall.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                onFailure.run();
+            }
+        });
+        return result;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.repository.ArchivedConversion;
+import com.devlearning.currencyconverter.repository.ConversionHistoryRepository;
+import com.devlearning.currencyconverter.repository.HistoryArchive;
+import com.devlearning.currencyconverter.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Moves history rows older than the retention horizon from the conversion_history table
+ * to the {@link HistoryArchive}, keeping the table (and its indexes) bounded by the horizon
+ * instead of growing forever.
+ * <p>
+ * Only complete months are archived: the cutoff is the first day of the month that contains
+ * "today minus {@code currency.archive.retention-days}", so each month is written once, in one file
+ * per user. For each user, the rows are streamed in (timestamp, id) order into the month files,
+ * and deleted from the table only after the files are safely on disk.
+ * <p>
+ * The history endpoint keeps returning archived rows (see ConversionHistoryRepositoryCustomImpl).
+ */
+@Service
+public class HistoryArchivalService {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryArchivalService.class);
+
+    private final ConversionHistoryRepository historyRepository;
+    private final UserRepository userRepository;
+    private final HistoryArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+
+    public HistoryArchivalService(ConversionHistoryRepository historyRepository, UserRepository userRepository,
+                                  HistoryArchive archive, PlatformTransactionManager transactionManager,
+                                  @Value("${currency.archive.retention-days:90}") int retentionDays) {
+        this.historyRepository = historyRepository;
+        this.userRepository = userRepository;
+        this.archive = archive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Archives every row older than the current cutoff.
+     *
+     * @return the number of rows moved to the archive.
+     */
+    public long archiveExpiredHistory() {
+        LocalDateTime cutoff = cutoff(LocalDate.now());
+        long archived = 0;
+        for (Long userId : userRepository.findAllIds()) {
+            try {
+                archived += archiveUser(userId, cutoff);
+            } catch (RuntimeException e) {
+                // Um usuário com falha não impede os outros; tenta de novo na próxima execução
+                log.error("Falha ao arquivar o histórico do usuário {}: {}", userId, e.getMessage());
+            }
+        }
+        log.info("Arquivamento concluído: {} conversões anteriores a {} movidas para o arquivo.", archived, cutoff);
+        return archived;
+    }
+
+    /**
+     * @param today the current day.
+     * @return the first instant that stays in the table.
+     */
+    LocalDateTime cutoff(LocalDate today) {
+        return today.minusDays(retentionDays).withDayOfMonth(1).atStartOfDay();
+    }
+
+    private int archiveUser(Long userId, LocalDateTime cutoff) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            try (Stream<ArchivedConversion> rows = historyRepository.streamOlderThan(userId, cutoff)) {
+                if (!writeMonths(userId, rows.iterator())) {
+                    return 0;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return historyRepository.deleteOlderThan(userId, cutoff);
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * Writes the rows (oldest first) into one archive file per month.
+     *
+     * @return false if there was nothing to archive.
+     */
+    private boolean writeMonths(Long userId, Iterator<ArchivedConversion> rows) throws IOException {
+        if (!rows.hasNext()) {
+            return false;
+        }
+        HistoryArchive.MonthWriter writer = null;
+        YearMonth currentMonth = null;
+        try {
+            while (rows.hasNext()) {
+                ArchivedConversion row = rows.next();
+                if (row.timestamp() == null) {
+                    // Sem data não entra em nenhum mês; a linha também não é apagada (o delete filtra pela data)
+                    log.warn("Conversão {} do usuário {} sem data; não foi arquivada.", row.id(), userId);
+                    continue;
+                }
+                YearMonth month = YearMonth.from(row.timestamp());
+                if (!month.equals(currentMonth)) {
+                    if (writer != null) {
+                        writer.commit();
+                        writer.close();
+                    }
+                    writer = archive.openMonth(userId, month);
+                    currentMonth = month;
+                }
+                writer.add(row);
+            }
+            if (writer == null) {
+                return false;
+            }
+            writer.commit();
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,243 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.repository.ConversionHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persists {@link ConversionHistory} rows according to the configured durability policy
+ * ({@code currency.history.write-mode}):
+ * <ul>
+ *   <li>{@code sync} (default): the row is inserted before the response is sent.</li>
+ *   <li>{@code async}: the row is put on a bounded in-memory queue and the response is sent
+ *   immediately; a background thread inserts queued rows in batches. Rows still queued when the
+ *   process dies abruptly are lost, so this trades durability for latency.</li>
+ * </ul>
+ * If the queue is full, the caller saves its row synchronously: rows are never dropped, and a
+ * database that cannot keep up slows callers down instead of growing the queue.
+ * On shutdown the queue is drained before the application stops. Enqueueing and stopping exclude
+ * each other: once the writer has stopped, rows are saved synchronously, so none is left behind in
+ * the queue. The same happens if the background thread dies of an unexpected error: it stops
+ * accepting rows and writes the ones still queued on its way out.
+ * <p>
+ * If a background batch fails, its rows are retried one by one; rows that still fail are logged and
+ * counted in {@link #lost()}.
+ * <p>
+ * Every row is also counted in the daily statistics ({@link ConversionStatsService}) once it has been
+ * written.
+ */
+@Component
+public class HistoryWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryWriter.class);
+
+    private final ConversionHistoryRepository repository;
+    private final ConversionStatsService statsService;
+    private final boolean async;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<ConversionHistory> queue;
+
+    // Leitura: quem enfileira; escrita: quem para o escritor. Nenhuma linha entra na fila depois da parada
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private final AtomicLong lost = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    /**
+     * @param repository          The Data Access Object used for the inserts.
+     * @param statsService        The daily statistics updated with every row.
+     * @param writeMode           "sync" or "async".
+     * @param queueCapacity       Maximum number of rows waiting to be written in async mode.
+     * @param batchSize           Maximum number of rows inserted together in async mode.
+     * @param flushIntervalMillis How long the writer waits for more rows before writing a partial batch.
+     */
+    public HistoryWriter(ConversionHistoryRepository repository, ConversionStatsService statsService,
+                         @Value("${currency.history.write-mode:sync}") String writeMode,
+                         @Value("${currency.history.queue-capacity:10000}") int queueCapacity,
+                         @Value("${currency.history.batch-size:200}") int batchSize,
+                         @Value("${currency.history.flush-interval-ms:50}") long flushIntervalMillis) {
+        this.repository = repository;
+        this.statsService = statsService;
+        this.async = "async".equalsIgnoreCase(writeMode);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!async) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stops accepting work for the background thread and waits for it to write every queued row.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        stopAccepting();
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            log.warn("{} conversões não foram gravadas no histórico antes do encerramento.", queue.size());
+        }
+    }
+
+    /**
+     * Saves one row, now (sync) or later (async).
+     *
+     * @return the saved row in sync mode; the same, still id-less, row in async mode.
+     */
+    public ConversionHistory save(ConversionHistory transaction) {
+        if (async && enqueue(List.of(transaction)).isEmpty()) {
+            return transaction;
+        }
+        ConversionHistory saved = repository.save(transaction);
+        statsService.record(transaction);
+        return saved;
+    }
+
+    /**
+     * Saves many rows, now (sync, with one saveAll) or later (async).
+     *
+     * @return the saved rows in sync mode; the same rows in async mode.
+     */
+    public List<ConversionHistory> saveAll(List<ConversionHistory> transactions) {
+        if (!async) {
+            List<ConversionHistory> saved = repository.saveAll(transactions);
+            transactions.forEach(statsService::record);
+            return saved;
+        }
+        List<ConversionHistory> overflow = enqueue(transactions);
+        if (!overflow.isEmpty()) {
+            repository.saveAll(overflow);
+            overflow.forEach(statsService::record);
+        }
+        return transactions;
+    }
+
+    /**
+     * Puts the rows on the queue while the writer is running.
+     *
+     * @return the rows that were not queued (writer stopped or queue full), to be saved by the caller.
+     */
+    private List<ConversionHistory> enqueue(List<ConversionHistory> transactions) {
+        acceptLock.readLock().lock();
+        try {
+            if (!running) {
+                return transactions;
+            }
+            List<ConversionHistory> overflow = new ArrayList<>();
+            for (ConversionHistory transaction : transactions) {
+                if (!queue.offer(transaction)) {
+                    overflow.add(transaction);
+                }
+            }
+            return overflow;
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    private void stopAccepting() {
+        acceptLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of rows waiting to be written.
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of rows that could not be written, since startup.
+     */
+    public long lost() {
+        return lost.get();
+    }
+
+    private void writeLoop() {
+        List<ConversionHistory> batch = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+        try {
+            // Continua até ser parado E a fila estar vazia (drenagem no encerramento)
+            while (running || !queue.isEmpty()) {
+                try {
+                    ConversionHistory first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } catch (RuntimeException | Error e) {
+            log.error("O escritor do histórico parou por um erro inesperado; as conversões passam a ser gravadas de forma síncrona.", e);
+            throw e;
+        } finally {
+            // Qualquer que seja a saída, deixa de aceitar linhas (quem chama grava-as de forma síncrona)
+            // e grava o que ainda está na fila
+            stopAccepting();
+            queue.drainTo(batch);
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void write(List<ConversionHistory> batch) {
+        try {
+            repository.saveAll(batch);
+            batch.forEach(statsService::record);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar um lote de {} conversões no histórico; gravando uma a uma: {}", batch.size(), e.getMessage());
+            for (ConversionHistory transaction : batch) {
+                try {
+                    repository.save(transaction);
+                    statsService.record(transaction);
+                } catch (RuntimeException rowError) {
+                    lost.incrementAndGet();
+                    log.error("Conversão perdida ao gravar no histórico ({} {} -> {}): {}", transaction.getOriginalAmount(),
+                            transaction.getFromCurrency(), transaction.getToCurrency(), rowError.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.MultiConversionResult;
+import com.devlearning.currencyconverter.model.MultiConversion;
+import com.devlearning.currencyconverter.repository.MultiConversionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Converts one amount into many currencies in a single request (e.g. a product price shown in 30 currencies).
+ * <p>
+ * Compared to one single conversion per currency:
+ * 1. Every target is computed from the same {@link RateSnapshot}, so the results are consistent with
+ *    each other, and the request makes no upstream call at all: the whole table is read from
+ *    {@link RateSnapshotService#currentTable()}, which is refreshed in the background.
+ * 2. The request is recorded as a single {@link MultiConversion} row holding the rates of every
+ *    target, instead of one history row per currency.
+ */
+@Service
+public class MultiConversionService {
+
+    private final ExchangeService exchangeService;
+    private final RateSnapshotService rateSnapshotService;
+    private final MultiConversionRepository repository;
+    private final int maxTargets;
+
+    /**
+     * @param exchangeService     Used to attach the logged-in user to the history entry.
+     * @param rateSnapshotService Holder of the rate table every target is computed from.
+     * @param repository          Saves the history entry.
+     * @param maxTargets          Maximum number of target currencies of one request, including "every currency".
+     */
+    public MultiConversionService(ExchangeService exchangeService, RateSnapshotService rateSnapshotService,
+                                  MultiConversionRepository repository,
+                                  @Value("${currency.multi.max-targets:200}") int maxTargets) {
+        this.exchangeService = exchangeService;
+        this.rateSnapshotService = rateSnapshotService;
+        this.repository = repository;
+        this.maxTargets = maxTargets;
+    }
+
+    /**
+     * Converts the amount into every target currency and records the request.
+     *
+     * @param from         Source currency code.
+     * @param amount       The amount to convert.
+     * @param toCurrencies Target currency codes; null or empty for every currency of the rate table.
+     * @return one conversion per target, in request order (duplicates removed).
+     * @throws IllegalArgumentException if a currency is not supported or too many targets are listed.
+     */
+    public MultiConversionResult convert(String from, BigDecimal amount, List<String> toCurrencies) {
+        RateSnapshot snapshot = rateSnapshotService.currentTable();
+        if (!snapshot.supports(from)) {
+            throw new IllegalArgumentException("Moeda inválida ou não suportada: " + from);
+        }
+        Set<String> targets = targets(snapshot, from, toCurrencies);
+
+        List<MultiConversionResult.Target> conversions = new ArrayList<>(targets.size());
+        StringBuilder targetRates = new StringBuilder(targets.size() * 16);
+        for (String to : targets) {
+            BigDecimal rate = snapshot.crossRate(from, to);
+            conversions.add(new MultiConversionResult.Target(to, rate, ConversionMath.convert(amount, rate, to)));
+            if (!targetRates.isEmpty()) {
+                targetRates.append(';');
+            }
+            targetRates.append(to).append('=').append(rate.toPlainString());
+        }
+        if (targetRates.length() > MultiConversion.MAX_TARGET_RATES_LENGTH) {
+            throw new IllegalArgumentException("O pedido tem moedas de destino demais para ser registrado; indique menos moedas.");
+        }
+
+        // Uma única linha no histórico para o pedido inteiro
+        Instant fetchedAt = snapshot.getFetchedAt();
+        MultiConversion entry = repository.save(new MultiConversion(exchangeService.currentUser(), from, amount,
+                targets.size(), targetRates.toString(), LocalDateTime.ofInstant(fetchedAt, ZoneId.systemDefault())));
+
+        boolean stale = rateSnapshotService.isStale(snapshot);
+        Long ageSeconds = stale ? Math.max(0, Duration.between(fetchedAt, Instant.now()).getSeconds()) : null;
+        return new MultiConversionResult(entry.getId(), from, amount, fetchedAt, stale, ageSeconds, conversions);
+    }
+
+    private Set<String> targets(RateSnapshot snapshot, String from, List<String> toCurrencies) {
+        if (toCurrencies == null || toCurrencies.isEmpty()) {
+            Set<String> all = new LinkedHashSet<>(snapshot.getCurrencies());
+            all.remove(from);
+            // O limite vale também para "todas as moedas": a tabela pode ter mais moedas do que o permitido
+            checkLimit(all.size());
+            return all;
+        }
+        checkLimit(toCurrencies.size());
+        Set<String> targets = new LinkedHashSet<>(toCurrencies);
+        for (String to : targets) {
+            if (!snapshot.supports(to)) {
+                throw new IllegalArgumentException("Moeda inválida ou não suportada: " + to);
+            }
+        }
+        return targets;
+    }
+
+    private void checkLimit(int targetCount) {
+        if (targetCount > maxTargets) {
+            throw new IllegalArgumentException("O pedido excede o limite de " + maxTargets + " moedas de destino.");
+        }
+    }
+}
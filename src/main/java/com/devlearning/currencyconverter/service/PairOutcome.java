@@ -0,0 +1,42 @@
+package com.devlearning.currencyconverter.service;
+
+import java.math.BigDecimal;
+
+/**
+ * The rate of a currency pair within one bulk conversion, or the reason it could not be resolved.
+ * <p>
+ * Bulk conversions resolve each distinct pair once and remember the outcome, including failures,
+ * so that only the items of a bad pair fail and the pair is not retried for every item.
+ *
+ * @param resolved   Whether a rate was resolved; when false only {@code error} is meaningful.
+ * @param rate       The resolved rate, never null when {@code resolved} is true.
+ * @param stale      Whether the rate came from an outdated table.
+ * @param ageSeconds Age of a stale rate in seconds, or null when it is current.
+ * @param error      The error message, never null when {@code resolved} is false.
+ */
+record PairOutcome(boolean resolved, BigDecimal rate, boolean stale, Long ageSeconds, String error) {
+
+    /**
+     * Resolves a pair through the ExchangeService, capturing any failure as the outcome.
+     * A missing rate is a failure of the pair too, so it never reaches the conversion math.
+     */
+    static PairOutcome resolve(ExchangeService exchangeService, String from, String to) {
+        if (from.equals(to)) {
+            return new PairOutcome(true, BigDecimal.ONE, false, null, null);
+        }
+        try {
+            ExchangeService.ResolvedRate resolved = exchangeService.resolveRate(from, to);
+            if (resolved == null || resolved.rate() == null) {
+                return failure("Taxa de câmbio indisponível para " + from + "/" + to + ".");
+            }
+            return new PairOutcome(true, resolved.rate(), resolved.stale(), resolved.ageSeconds(), null);
+        } catch (RuntimeException e) {
+            // O erro fica associado ao par: só os itens deste par falham
+            return failure(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private static PairOutcome failure(String error) {
+        return new PairOutcome(false, null, false, null, error);
+    }
+}
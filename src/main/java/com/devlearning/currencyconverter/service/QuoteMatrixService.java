@@ -0,0 +1,140 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.QuoteMatrix;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Serves the cross-rate matrix of the current {@link RateSnapshot} as ready-to-send JSON bytes,
+ * for front-ends that poll the rates.
+ * <p>
+ * The matrix is serialized once per rate table: polls between two refreshes get the same byte
+ * array, with a strong ETag derived from its content, so a poll costs a reference comparison and
+ * no serialization. Subsets of currencies are cached the same way (up to {@value #MAX_CACHED_SUBSETS}
+ * distinct subsets per table). Everything cached is dropped when a new table is published.
+ * <p>
+ * Only the published table is read ({@link RateSnapshotService#currentTable()}): a poll never calls the
+ * upstream nor waits for a refresh.
+ */
+@Service
+public class QuoteMatrixService {
+
+    // Subconjuntos distintos guardados por tabela; além disso são serializados a cada pedido
+    static final int MAX_CACHED_SUBSETS = 256;
+
+    private final RateSnapshotService rateSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final Duration refreshInterval;
+
+    private volatile Serialized cache;
+
+    /**
+     * @param rateSnapshotService    Holder of the current rate table.
+     * @param objectMapper           Serializes the matrix.
+     * @param refreshIntervalSeconds Interval between rate refreshes, from which the cache lifetime is derived.
+     */
+    public QuoteMatrixService(RateSnapshotService rateSnapshotService, ObjectMapper objectMapper,
+                              @Value("${currency.rates.refresh-seconds:300}") long refreshIntervalSeconds) {
+        this.rateSnapshotService = rateSnapshotService;
+        this.objectMapper = objectMapper;
+        this.refreshInterval = Duration.ofSeconds(refreshIntervalSeconds);
+    }
+
+    /**
+     * Returns the serialized matrix of the current rate table.
+     *
+     * @param currencies The currencies to include, in order; null or empty for every supported currency.
+     * @return the JSON body and its ETag.
+     * @throws IllegalArgumentException if a currency is not supported.
+     */
+    public SerializedQuotes quotes(List<String> currencies) {
+        RateSnapshot snapshot = rateSnapshotService.currentTable();
+        Serialized serialized = cache;
+        if (serialized == null || serialized.snapshot != snapshot) {
+            // Nova tabela: serializa a matriz completa uma única vez (pedidos concorrentes podem
+            // repetir o trabalho, mas o resultado é idêntico)
+            serialized = new Serialized(snapshot, serialize(snapshot, snapshot.getCurrencies()));
+            cache = serialized;
+        }
+        if (currencies == null || currencies.isEmpty()) {
+            return serialized.full;
+        }
+
+        Set<String> subset = new LinkedHashSet<>(currencies);
+        for (String currency : subset) {
+            if (!snapshot.supports(currency)) {
+                throw new IllegalArgumentException("Moeda inválida ou não suportada: " + currency);
+            }
+        }
+        String key = String.join(",", subset);
+        SerializedQuotes quotes = serialized.subsets.get(key);
+        if (quotes == null) {
+            quotes = serialize(snapshot, subset);
+            if (serialized.subsets.size() < MAX_CACHED_SUBSETS) {
+                serialized.subsets.putIfAbsent(key, quotes);
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Seconds until the next rate refresh is due, to be used as the {@code max-age} of the response.
+     */
+    public long maxAgeSeconds(SerializedQuotes quotes) {
+        Duration untilRefresh = Duration.between(Instant.now(), quotes.fetchedAt().plus(refreshInterval));
+        return Math.max(0, untilRefresh.getSeconds());
+    }
+
+    private SerializedQuotes serialize(RateSnapshot snapshot, Set<String> currencies) {
+        List<List<BigDecimal>> rates = new ArrayList<>(currencies.size());
+        for (String from : currencies) {
+            List<BigDecimal> row = new ArrayList<>(currencies.size());
+            for (String to : currencies) {
+                row.add(snapshot.crossRate(from, to));
+            }
+            rates.add(row);
+        }
+        byte[] body = objectMapper.writeValueAsBytes(
+                new QuoteMatrix(snapshot.getBase(), snapshot.getFetchedAt(), List.copyOf(currencies), rates));
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        String etag = "\"" + Long.toString(snapshot.getFetchedAt().toEpochMilli(), 36) + "-" + Long.toHexString(crc.getValue()) + "\"";
+        return new SerializedQuotes(body, etag, snapshot.getFetchedAt());
+    }
+
+    /**
+     * A serialized matrix, ready to be written to the response as is.
+     *
+     * @param body      The JSON body (never modified: shared by every response).
+     * @param etag      Strong ETag of the body, quoted.
+     * @param fetchedAt When the rate table was fetched.
+     */
+    public record SerializedQuotes(byte[] body, String etag, Instant fetchedAt) {}
+
+    /**
+     * Everything serialized from one rate table.
+     */
+    private static final class Serialized {
+
+        final RateSnapshot snapshot;
+        final SerializedQuotes full;
+        final ConcurrentHashMap<String, SerializedQuotes> subsets = new ConcurrentHashMap<>();
+
+        Serialized(RateSnapshot snapshot, SerializedQuotes full) {
+            this.snapshot = snapshot;
+            this.full = full;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.RateCacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * In-process cache of exchange rates keyed by currency pair (e.g. "USD/EUR").
+ * <p>
+ * Entries expire after a configurable TTL and the cache is bounded: once it grows past
+ * its maximum size, expired entries are dropped first and then the entries closest to
+ * expiring are evicted.
+ * <p>
+ * Concurrent misses for the same pair are coalesced (single-flight): the first thread loads
+ * the rate from the upstream API and every other thread waiting on that pair reuses the result,
+ * so N simultaneous requests for USD/EUR produce exactly one upstream call.
+ * <p>
+ * After a restart the cache can be seeded with a stored rate table ({@link #seed}): its pairs are served
+ * for what is left of the TTL counted from when the table was fetched, as if they had been loaded then.
+ */
+@Component
+public class RateCache {
+
+    private final ConcurrentHashMap<String, CachedRate> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<BigDecimal>> inFlight = new ConcurrentHashMap<>();
+
+    private final long ttlNanos;
+    private final int maxSize;
+    // Tabela restaurada no arranque: as taxas cruzadas são derivadas dela no primeiro uso de cada par
+    private volatile SeedTable seed;
+
+    // Contadores expostos em /api/exchange/cache/stats para ajustar o TTL à quota da API
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalescedMisses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+
+    /**
+     * @param ttlSeconds how long a fetched rate may be served before it is fetched again.
+     * @param maxSize    maximum number of currency pairs kept in memory.
+     */
+    public RateCache(@Value("${currency.cache.ttl-seconds:60}") long ttlSeconds,
+                     @Value("${currency.cache.max-size:1000}") int maxSize) {
+        if (ttlSeconds <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("TTL e tamanho máximo do cache devem ser positivos.");
+        }
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached rate for the pair, loading it with {@code loader} on a miss.
+     * <p>
+     * Only one loader call runs per pair at any time; concurrent callers block on the
+     * same result. If the load fails, every waiting caller receives the same exception
+     * and nothing is cached.
+     *
+     * @param from   Source currency code.
+     * @param to     Target currency code.
+     * @param loader Function that fetches the rate from the upstream API.
+     * @return the exchange rate for one unit of {@code from} in {@code to}.
+     */
+    public BigDecimal get(String from, String to, BiFunction<String, String, BigDecimal> loader) {
+        String key = from + "/" + to;
+
+        BigDecimal cached = lookup(key);
+        if (cached == null) {
+            cached = lookupSeed(from, to, key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<BigDecimal> ours = new CompletableFuture<>();
+        CompletableFuture<BigDecimal> running = inFlight.putIfAbsent(key, ours);
+        if (running != null) {
+            // Já existe uma chamada em curso para este par: espera pelo mesmo resultado
+            coalescedMisses.increment();
+            return await(running);
+        }
+
+        try {
+            // Outra thread pode ter terminado o carregamento entre o lookup e o putIfAbsent
+            BigDecimal rate = lookup(key);
+            if (rate == null) {
+                rate = load(from, to, loader);
+                store(key, rate);
+            }
+            ours.complete(rate);
+            return rate;
+        } catch (RuntimeException e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ours);
+        }
+    }
+
+    /**
+     * Seeds the cache with a whole rate table (warm start). Its pairs are served until the table is
+     * older than the TTL, like rates loaded when the table was fetched; a table already older than
+     * the TTL is ignored.
+     *
+     * @return true if the table was fresh enough to be used.
+     */
+    public boolean seed(RateSnapshot table) {
+        long remainingNanos = ttlNanos - Duration.between(table.getFetchedAt(), Instant.now()).toNanos();
+        if (remainingNanos <= 0) {
+            return false;
+        }
+        seed = new SeedTable(table, System.nanoTime() + remainingNanos);
+        return true;
+    }
+
+    /**
+     * Returns a point-in-time copy of the cache counters.
+     */
+    public RateCacheStats stats() {
+        long loadCount = loads.sum();
+        double averageLoadMillis = loadCount == 0
+                ? 0.0
+                : totalLoadNanos.sum() / (double) loadCount / 1_000_000.0;
+
+        return new RateCacheStats(
+                hits.sum(),
+                misses.sum(),
+                coalescedMisses.sum(),
+                loadCount,
+                loadFailures.sum(),
+                evictions.sum(),
+                averageLoadMillis,
+                entries.size()
+        );
+    }
+
+    private BigDecimal lookup(String key) {
+        CachedRate entry = entries.get(key);
+        if (entry == null || entry.expiresAt() - System.nanoTime() <= 0) {
+            return null;
+        }
+        return entry.rate();
+    }
+
+    private BigDecimal lookupSeed(String from, String to, String key) {
+        SeedTable table = seed;
+        if (table == null) {
+            return null;
+        }
+        if (table.expiresAt() - System.nanoTime() <= 0) {
+            seed = null;
+            return null;
+        }
+        if (!table.snapshot().supports(from) || !table.snapshot().supports(to)) {
+            return null;
+        }
+        BigDecimal rate = table.snapshot().crossRate(from, to);
+        // Vale até a tabela expirar, não um TTL inteiro a partir de agora
+        entries.put(key, new CachedRate(rate, table.expiresAt()));
+        if (entries.size() > maxSize) {
+            evictOverflow();
+        }
+        return rate;
+    }
+
+    private BigDecimal load(String from, String to, BiFunction<String, String, BigDecimal> loader) {
+        long start = System.nanoTime();
+        try {
+            BigDecimal rate = loader.apply(from, to);
+            loads.increment();
+            return rate;
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            throw e;
+        } finally {
+            totalLoadNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void store(String key, BigDecimal rate) {
+        entries.put(key, new CachedRate(rate, System.nanoTime() + ttlNanos));
+        if (entries.size() > maxSize) {
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Drops expired entries and, if the cache is still over capacity, the entries that
+     * would expire soonest. Evicts down to 90% of the capacity so that a full cache does
+     * not pay for a scan on every single insert.
+     */
+    private synchronized void evictOverflow() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.forEach((key, entry) -> {
+            if (entry.expiresAt() - now <= 0 && entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        });
+
+        int target = Math.max(1, maxSize - maxSize / 10);
+        if (entries.size() <= target) {
+            return;
+        }
+        List<Map.Entry<String, CachedRate>> oldestFirst = new ArrayList<>(entries.entrySet());
+        oldestFirst.sort(Comparator.comparingLong(e -> e.getValue().expiresAt() - now));
+        for (Map.Entry<String, CachedRate> entry : oldestFirst) {
+            if (entries.size() <= target) {
+                break;
+            }
+            if (entries.remove(entry.getKey(), entry.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static BigDecimal await(CompletableFuture<BigDecimal> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record CachedRate(BigDecimal rate, long expiresAt) {}
+
+    private record SeedTable(RateSnapshot snapshot, long expiresAt) {}
+}
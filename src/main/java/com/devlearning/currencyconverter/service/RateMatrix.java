@@ -0,0 +1,103 @@
+package com.devlearning.currencyconverter.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Dense table of every cross rate between the currencies of one rate snapshot.
+ * <p>
+ * Each supported currency gets a slot number (0..n-1) through a primitive {@code short[]}
+ * indexed by its {@link CurrencyCodes packed code}, and the n×n cross rates are precomputed
+ * into one flat array. A lookup is two array reads and one multiply-add: no String hashing,
+ * no boxing and no allocation. Building the table costs n² divisions, paid once per refresh.
+ */
+final class RateMatrix {
+
+    private static final short NO_SLOT = -1;
+
+    private final short[] slotByCode = new short[CurrencyCodes.CODE_SPACE];
+    private final String[] codes;
+    private final BigDecimal[] crossRates;
+    private final int size;
+
+    /**
+     * @param base      The base currency of the rates.
+     * @param baseRates The value of one unit of the base currency in every supported currency.
+     * @param precision Precision used for the derived (non-base) cross rates.
+     */
+    RateMatrix(String base, Map<String, BigDecimal> baseRates, MathContext precision) {
+        Arrays.fill(slotByCode, NO_SLOT);
+
+        // 1. Atribui um slot a cada moeda válida (a base vale sempre 1)
+        String[] slotCodes = new String[baseRates.size() + 1];
+        BigDecimal[] slotRates = new BigDecimal[slotCodes.length];
+        int count = 0;
+        int baseCode = CurrencyCodes.pack(base);
+        if (baseCode != CurrencyCodes.INVALID) {
+            slotByCode[baseCode] = (short) count;
+            slotCodes[count] = base;
+            slotRates[count] = BigDecimal.ONE;
+            count++;
+        }
+        for (Map.Entry<String, BigDecimal> entry : baseRates.entrySet()) {
+            int code = CurrencyCodes.pack(entry.getKey());
+            BigDecimal rate = entry.getValue();
+            if (code == CurrencyCodes.INVALID || slotByCode[code] != NO_SLOT || rate == null || rate.signum() <= 0) {
+                continue;
+            }
+            slotByCode[code] = (short) count;
+            slotCodes[count] = entry.getKey();
+            slotRates[count] = rate;
+            count++;
+        }
+
+        // 2. Pré-calcula todas as taxas cruzadas: from -> to = (base -> to) / (base -> from)
+        this.size = count;
+        this.codes = Arrays.copyOf(slotCodes, count);
+        this.crossRates = new BigDecimal[count * count];
+        int baseSlot = baseCode == CurrencyCodes.INVALID ? NO_SLOT : slotByCode[baseCode];
+        for (int from = 0; from < count; from++) {
+            for (int to = 0; to < count; to++) {
+                BigDecimal rate;
+                if (from == to) {
+                    rate = BigDecimal.ONE;
+                } else if (from == baseSlot) {
+                    rate = slotRates[to];
+                } else {
+                    rate = slotRates[to].divide(slotRates[from], precision);
+                }
+                crossRates[from * count + to] = rate;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of a packed currency code, or -1 if the currency is not in the table.
+     */
+    int slot(int packedCode) {
+        if (packedCode < 0 || packedCode >= CurrencyCodes.CODE_SPACE) {
+            return NO_SLOT;
+        }
+        return slotByCode[packedCode];
+    }
+
+    /**
+     * Returns the cross rate between two slots.
+     */
+    BigDecimal rate(int fromSlot, int toSlot) {
+        return crossRates[fromSlot * size + toSlot];
+    }
+
+    /**
+     * Returns the currency code of a slot.
+     */
+    String code(int slot) {
+        return codes[slot];
+    }
+
+    int size() {
+        return size;
+    }
+}
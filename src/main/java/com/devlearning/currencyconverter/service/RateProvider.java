@@ -0,0 +1,32 @@
+package com.devlearning.currencyconverter.service;
+
+import java.math.BigDecimal;
+
+/**
+ * A source of exchange rates.
+ * <p>
+ * {@link ExchangeRateApiClient} is the external ExchangeRate-API; {@link FileRateProvider} reads a
+ * local file (tests, offline environments); {@link HedgedRateProvider} combines two providers to cut
+ * tail latency. The provider in use is chosen by {@code currency.rates.provider}
+ * (see {@code RateProviderConfig}).
+ * <p>
+ * Implementations follow the same error contract: {@link IllegalArgumentException} when the
+ * currencies are not supported, any other {@link RuntimeException} when the rates cannot be obtained.
+ */
+public interface RateProvider {
+
+    /**
+     * Short name used in logs and configuration (e.g. "exchangerate-api").
+     */
+    String name();
+
+    /**
+     * Returns the rate for one unit of {@code from} in {@code to}.
+     */
+    BigDecimal fetchPairRate(String from, String to);
+
+    /**
+     * Returns the full rate table against one base currency.
+     */
+    RateSnapshot fetchSnapshot(String base);
+}
@@ -0,0 +1,81 @@
+package com.devlearning.currencyconverter.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable table of exchange rates against a single base currency, as fetched at one moment.
+ * <p>
+ * Any cross rate is derived locally from the two legs against the base
+ * (e.g. GBP→JPY = USD→JPY / USD→GBP), so a single upstream call serves every pair.
+ * All cross rates are precomputed into a {@link RateMatrix} when the snapshot is built, so a
+ * lookup does no String hashing and no allocation.
+ * Instances are never modified after construction and can be shared freely between threads.
+ */
+public final class RateSnapshot {
+
+    /**
+     * Precision used for derived cross rates: 12 significant digits, rounded half-even.
+     * This is well beyond the 6 significant digits published by the upstream API.
+     */
+    public static final MathContext RATE_PRECISION = new MathContext(12, RoundingMode.HALF_EVEN);
+
+    private final String base;
+    private final RateMatrix matrix;
+    private final Instant fetchedAt;
+
+    /**
+     * @param base      The base currency of the table (e.g., "USD").
+     * @param rates     The value of one unit of the base currency in every supported currency.
+     * @param fetchedAt When the table was fetched from the upstream API.
+     */
+    public RateSnapshot(String base, Map<String, BigDecimal> rates, Instant fetchedAt) {
+        this.base = base;
+        this.matrix = new RateMatrix(base, rates, RATE_PRECISION);
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * Returns the rate for one unit of {@code from} in {@code to}.
+     *
+     * @param from Source currency code.
+     * @param to   Target currency code.
+     * @return the exchange rate, derived through the base currency when neither side is the base.
+     * @throws IllegalArgumentException if either currency is not in the table.
+     */
+    public BigDecimal crossRate(String from, String to) {
+        int fromSlot = matrix.slot(CurrencyCodes.pack(from));
+        int toSlot = matrix.slot(CurrencyCodes.pack(to));
+        if (fromSlot < 0 || toSlot < 0) {
+            throw new IllegalArgumentException("Moeda inválida ou não suportada: " + from + " ou " + to);
+        }
+        return matrix.rate(fromSlot, toSlot);
+    }
+
+    /**
+     * @return true if the currency can be converted with this snapshot.
+     */
+    public boolean supports(String currency) {
+        return matrix.slot(CurrencyCodes.pack(currency)) >= 0;
+    }
+
+    public String getBase() { return base; }
+
+    /**
+     * @return the supported currency codes, base currency first.
+     */
+    public Set<String> getCurrencies() {
+        Set<String> currencies = new LinkedHashSet<>();
+        for (int slot = 0; slot < matrix.size(); slot++) {
+            currencies.add(matrix.code(slot));
+        }
+        return currencies;
+    }
+
+    public Instant getFetchedAt() { return fetchedAt; }
+}
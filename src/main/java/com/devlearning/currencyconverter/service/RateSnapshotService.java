@@ -0,0 +1,166 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.exception.RatesUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link RateSnapshot} used in "snapshot" rate mode.
+ * <p>
+ * The snapshot is replaced in the background by the {@code RateRefreshScheduler}: a new immutable
+ * table is downloaded and published with a single atomic reference swap. Request threads only read
+ * that reference, so they never block on I/O or locks.
+ * <p>
+ * If a refresh fails, the last good snapshot keeps being served and is reported as stale.
+ * <p>
+ * Requests that need a whole table in any rate mode (multi-currency conversion, quote matrix) use
+ * {@link #currentTable()}, which never blocks either. In "pair" rate mode, where no scheduler runs,
+ * the table is loaded on first use, and then refreshed when a reader finds it older than the refresh
+ * interval; loads run one at a time on the application task executor. An instance that never serves
+ * those requests never downloads the table.
+ */
+@Service
+public class RateSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(RateSnapshotService.class);
+
+    private static final Duration ON_DEMAND_RETRY = Duration.ofSeconds(10);
+
+    private final RateProvider rateProvider;
+    private final Executor loadExecutor;
+    private final String baseCurrency;
+    private final Duration refreshInterval;
+    private final Duration maxAge;
+    // Modo "snapshot": quem atualiza a tabela é só o RateRefreshScheduler
+    private final boolean refreshedByScheduler;
+
+    private final AtomicReference<RateSnapshot> current = new AtomicReference<>();
+    private volatile boolean lastRefreshFailed;
+
+    // Carregamento em segundo plano (modo "pair"): um de cada vez, e no máximo uma tentativa a cada ON_DEMAND_RETRY
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile Instant lastLoadAttempt = Instant.EPOCH;
+
+    /**
+     * @param rateProvider           Source of the rate table.
+     * @param loadExecutor           Runs the "pair" mode loads off the request thread (Spring Boot's
+     *                               {@code applicationTaskExecutor}).
+     * @param baseCurrency           Base currency of the table (cross rates are derived through it).
+     * @param refreshIntervalSeconds Interval between background refreshes. A snapshot older than
+     *                               twice this interval is reported as stale.
+     * @param rateMode               "snapshot" (the table is refreshed by the scheduler) or "pair".
+     */
+    public RateSnapshotService(RateProvider rateProvider,
+                               @Qualifier("applicationTaskExecutor") Executor loadExecutor,
+                               @Value("${currency.rates.base:USD}") String baseCurrency,
+                               @Value("${currency.rates.refresh-seconds:300}") long refreshIntervalSeconds,
+                               @Value("${currency.rates.mode:pair}") String rateMode) {
+        this.rateProvider = rateProvider;
+        this.loadExecutor = loadExecutor;
+        this.baseCurrency = baseCurrency;
+        this.refreshInterval = Duration.ofSeconds(refreshIntervalSeconds);
+        this.maxAge = Duration.ofSeconds(refreshIntervalSeconds * 2);
+        this.refreshedByScheduler = "snapshot".equalsIgnoreCase(rateMode);
+    }
+
+    /**
+     * Returns the last published snapshot without blocking.
+     *
+     * @throws RatesUnavailableException if no snapshot has been loaded yet.
+     */
+    public RateSnapshot current() {
+        RateSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            throw new RatesUnavailableException("As taxas de câmbio ainda não foram carregadas. Tente novamente em instantes.");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the last published snapshot without blocking, for requests that need the whole table.
+     * <p>
+     * In "snapshot" rate mode this is {@link #current()}: refreshing is left to the scheduler. In
+     * "pair" mode, the first call starts loading the table, and a table older than the refresh interval
+     * is refreshed in the background while the current one keeps being served; the request thread never
+     * calls the upstream nor waits for it.
+     *
+     * @throws RatesUnavailableException if no snapshot has been loaded yet (the first call in "pair" mode).
+     */
+    public RateSnapshot currentTable() {
+        RateSnapshot snapshot = current.get();
+        if (!refreshedByScheduler && (snapshot == null || isDue(snapshot))) {
+            loadInBackground();
+        }
+        return current();
+    }
+
+    private void loadInBackground() {
+        if (lastLoadAttempt.plus(ON_DEMAND_RETRY).isAfter(Instant.now()) || !loading.compareAndSet(false, true)) {
+            return;
+        }
+        lastLoadAttempt = Instant.now();
+        try {
+            loadExecutor.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    loading.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Executor a encerrar: a próxima leitura depois de ON_DEMAND_RETRY tenta de novo
+            loading.set(false);
+            log.warn("Não foi possível agendar o carregamento da tabela de taxas: {}", e.getMessage());
+        }
+    }
+
+    private boolean isDue(RateSnapshot snapshot) {
+        return snapshot.getFetchedAt().plus(refreshInterval).isBefore(Instant.now());
+    }
+
+    /**
+     * Tells whether the given snapshot should be flagged as stale: either the last refresh
+     * failed, or the snapshot is older than the maximum age.
+     */
+    public boolean isStale(RateSnapshot snapshot) {
+        return lastRefreshFailed || snapshot.getFetchedAt().plus(maxAge).isBefore(Instant.now());
+    }
+
+    /**
+     * Downloads a new rate table and publishes it.
+     * <p>
+     * Called in the background only, never from a request thread: by the {@code RateRefreshScheduler}
+     * in "snapshot" rate mode, and by the load executor of {@link #currentTable()} in "pair" mode.
+     * On failure the previous snapshot is kept.
+     *
+     * @return true if a new snapshot was published.
+     */
+    public boolean refresh() {
+        try {
+            publish(rateProvider.fetchSnapshot(baseCurrency));
+            return true;
+        } catch (RuntimeException e) {
+            lastRefreshFailed = true;
+            log.warn("Falha ao atualizar as taxas de câmbio; mantendo a última tabela válida: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Atomically replaces the current snapshot.
+     */
+    public void publish(RateSnapshot snapshot) {
+        current.set(snapshot);
+        lastRefreshFailed = false;
+    }
+}
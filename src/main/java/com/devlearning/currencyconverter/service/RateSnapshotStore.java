@@ -0,0 +1,115 @@
+package com.devlearning.currencyconverter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local copy of the last rate snapshot, so a restarted instance can serve conversions before
+ * its first refresh.
+ * <p>
+ * The file is small and fixed-width: a header (magic, version, fetch time, base currency, count)
+ * followed by one 11-byte entry per currency, with the {@link CurrencyCodes packed code} and the
+ * rate as scale + unscaled long. About 2 KB for the ~160 currencies of the upstream API. It is
+ * read through a memory mapping, without parsing text, and written to a temporary name, synced
+ * and renamed, so a crash never leaves a partial file behind.
+ */
+@Component
+public class RateSnapshotStore {
+
+    private static final int MAGIC = 0x52415431; // "RAT1"
+    private static final int HEADER_BYTES = 4 + 8 + 2 + 4;
+    private static final int ENTRY_BYTES = 2 + 1 + 8;
+    // Taxas com mais dígitos do que cabem num long são arredondadas a 18 dígitos significativos
+    private static final MathContext LONG_DIGITS = new MathContext(18);
+
+    private final Path file;
+
+    public RateSnapshotStore(@Value("${currency.rates.snapshot-file:./rate-snapshot.bin}") String file) {
+        this.file = Paths.get(file);
+    }
+
+    /**
+     * Writes the snapshot, replacing the previous file atomically.
+     */
+    public void save(RateSnapshot snapshot) throws IOException {
+        Set<String> currencies = snapshot.getCurrencies();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + currencies.size() * ENTRY_BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putLong(snapshot.getFetchedAt().toEpochMilli());
+        buffer.putShort((short) CurrencyCodes.pack(snapshot.getBase()));
+        buffer.putInt(currencies.size());
+        for (String currency : currencies) {
+            BigDecimal rate = snapshot.crossRate(snapshot.getBase(), currency);
+            if (rate.unscaledValue().bitLength() > 63) {
+                rate = rate.round(LONG_DIGITS);
+            }
+            buffer.putShort((short) CurrencyCodes.pack(currency));
+            buffer.put((byte) rate.scale());
+            buffer.putLong(rate.unscaledValue().longValueExact());
+        }
+        buffer.flip();
+
+        Path absolute = file.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads the stored snapshot, keeping the time it was originally fetched from the upstream.
+     *
+     * @return the snapshot, or null if there is no file yet.
+     * @throws IOException if the file exists but is not a valid snapshot.
+     */
+    public RateSnapshot load() throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Arquivo de taxas truncado: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Formato desconhecido: " + file);
+            }
+            Instant fetchedAt = Instant.ofEpochMilli(buffer.getLong());
+            String base = CurrencyCodes.unpack(buffer.getShort());
+            int count = buffer.getInt();
+            if (count < 0 || size != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+                throw new IOException("Arquivo de taxas truncado: " + file);
+            }
+            Map<String, BigDecimal> rates = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String currency = CurrencyCodes.unpack(buffer.getShort());
+                int scale = buffer.get();
+                rates.put(currency, BigDecimal.valueOf(buffer.getLong(), scale));
+            }
+            return new RateSnapshot(base, rates, fetchedAt);
+        }
+    }
+}
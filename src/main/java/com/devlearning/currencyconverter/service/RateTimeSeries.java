@@ -0,0 +1,424 @@
+package com.devlearning.currencyconverter.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time series of the exchange rates seen by the application, for conversions "as of" a past moment.
+ * <p>
+ * Each currency pair has its own series: the moments at which its rate changed and the new rate,
+ * kept in memory as two sorted {@code long[]} (epoch millis and the rate in fixed point). Each series
+ * has its own scale, chosen from its first rate to keep at least {@value #SIGNIFICANT_DIGITS}
+ * significant digits and never fewer than {@value #RATE_SCALE} decimals: 0.0000393 (VND to USD) is
+ * kept with 14 decimals, where a fixed scale of 10 would leave it 6 significant digits.
+ * <p>
+ * A rate applies from its moment until the next point, so a refresh that brings the same rate adds
+ * nothing, and a lookup is a binary search: O(log n), no access to the history table.
+ * <p>
+ * Memory is bounded by a retention horizon ({@code currency.rates.history-retention-days}): when a
+ * series fills its arrays, the points older than the horizon are dropped, except the last one, which
+ * is the rate in force at the horizon. A series thus holds at most about twice the points of the
+ * horizon: in "snapshot" mode, with a rate change at every 5-minute refresh and the default 30 days,
+ * up to some 17,000 points of 16 bytes, about 280 KB per currency. Earlier moments may then have no rate.
+ * <p>
+ * Points are also appended to a log file ({@code currency.rates.history-file}; empty, the default,
+ * keeps the series in memory only), replayed at startup. The log is compact: every point is written as
+ * variable-length deltas from the previous point of the same pair, usually 5 to 8 bytes.
+ * A record cut short by a crash is dropped at the next startup. The file is not compacted: it keeps
+ * every point, and only the points within the horizon are loaded back into memory.
+ * <p>
+ * The series are fed by the {@link RecordingRateProvider}: full tables in "snapshot" mode (series
+ * of the base currency against every other one, from which cross rates are derived) and single
+ * pairs in "pair" mode.
+ */
+@Component
+public class RateTimeSeries {
+
+    private static final Logger log = LoggerFactory.getLogger(RateTimeSeries.class);
+
+    /** Minimum decimals kept for the rates (the same as the exchange_rate column). */
+    static final int RATE_SCALE = 10;
+
+    /** Significant digits kept for the first rate of a series, whatever its magnitude. */
+    static final int SIGNIFICANT_DIGITS = 10;
+
+    private static final int MAGIC = 0x52545332; // "RTS2"
+    private static final byte PAIR = 1;
+    private static final byte POINT = 2;
+
+    private final Path file;
+    private final String baseCurrency;
+    private final long retentionMillis;
+
+    private final ConcurrentHashMap<String, Series> seriesByPair = new ConcurrentHashMap<>();
+    // Ids dos pares no log, pela ordem em que foram definidos
+    private final List<Series> seriesById = new ArrayList<>();
+    private DataOutputStream out;
+
+    /**
+     * @param file         Log file of the series; blank to keep them in memory only.
+     * @param baseCurrency Base currency of the rate tables ({@code currency.rates.base}), used to derive cross rates.
+     * @param retentionDays How far back, from the last point of each series, rates are kept in memory.
+     */
+    public RateTimeSeries(@Value("${currency.rates.history-file:}") String file,
+                          @Value("${currency.rates.base:USD}") String baseCurrency,
+                          @Value("${currency.rates.history-retention-days:30}") long retentionDays) {
+        if (retentionDays <= 0) {
+            throw new IllegalArgumentException("currency.rates.history-retention-days deve ser maior que zero.");
+        }
+        this.file = file == null || file.isBlank() ? null : Paths.get(file);
+        this.baseCurrency = baseCurrency;
+        this.retentionMillis = Duration.ofDays(retentionDays).toMillis();
+    }
+
+    /**
+     * Replays the log into memory and opens it for appending.
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (file == null || out != null) {
+            return;
+        }
+        long validLength = Files.exists(file) ? replay() : 0;
+        if (validLength == 0) {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Descarta um registo incompleto no fim do arquivo (processo interrompido a meio de uma escrita)
+            channel.truncate(validLength);
+        }
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile(), true)));
+        if (validLength == 0) {
+            out.writeInt(MAGIC);
+            out.flush();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    /**
+     * Records every rate of a table against its base currency, at the time the table was fetched.
+     */
+    public synchronized void record(RateSnapshot snapshot) {
+        String base = snapshot.getBase();
+        long at = snapshot.getFetchedAt().toEpochMilli();
+        for (String currency : snapshot.getCurrencies()) {
+            if (!currency.equals(base)) {
+                append(base, currency, snapshot.crossRate(base, currency), at);
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Records the rate of one pair at the given moment.
+     */
+    public synchronized void record(String from, String to, BigDecimal rate, Instant at) {
+        append(from, to, rate, at.toEpochMilli());
+        flush();
+    }
+
+    /**
+     * Returns the rate of a pair in force at the given moment: the last one recorded at or before it.
+     * <p>
+     * Uses the series of the pair itself, else the inverse of the opposite pair, else the cross rate
+     * through the base currency.
+     *
+     * @throws IllegalArgumentException if no rate of the pair had been recorded by then.
+     */
+    public BigDecimal rateAsOf(String from, String to, Instant at) {
+        long time = at.toEpochMilli();
+
+        BigDecimal direct = floor(from, to, time);
+        if (direct != null) {
+            return direct;
+        }
+        BigDecimal inverse = floor(to, from, time);
+        if (inverse != null) {
+            return BigDecimal.ONE.divide(inverse, RateSnapshot.RATE_PRECISION);
+        }
+        BigDecimal baseToFrom = from.equals(baseCurrency) ? BigDecimal.ONE : floor(baseCurrency, from, time);
+        BigDecimal baseToTo = to.equals(baseCurrency) ? BigDecimal.ONE : floor(baseCurrency, to, time);
+        if (baseToFrom != null && baseToTo != null) {
+            return baseToTo.divide(baseToFrom, RateSnapshot.RATE_PRECISION);
+        }
+        throw new IllegalArgumentException("Nenhuma taxa registrada para " + from + "/" + to + " em " + at + ".");
+    }
+
+    private BigDecimal floor(String from, String to, long time) {
+        Series series = seriesByPair.get(from + "/" + to);
+        if (series == null) {
+            return null;
+        }
+        long value = series.floor(time);
+        return value == Series.NONE ? null : BigDecimal.valueOf(value, series.scale);
+    }
+
+    private void append(String from, String to, BigDecimal rate, long at) {
+        Series series = seriesByPair.get(from + "/" + to);
+        try {
+            if (series == null) {
+                series = new Series(seriesById.size(), scaleFor(rate), retentionMillis);
+                if (out != null) {
+                    writePair(out, from, to, series.scale);
+                }
+                seriesById.add(series);
+                seriesByPair.put(from + "/" + to, series);
+            }
+            long previousTime = series.lastTime();
+            long previousRate = series.lastRate();
+            long value = rate.setScale(series.scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+            if (series.append(at, value) && out != null) {
+                writePoint(out, series.id, at - previousTime, value - previousRate);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar o histórico de taxas.", e);
+        }
+    }
+
+    private void flush() {
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao gravar o histórico de taxas.", e);
+            }
+        }
+    }
+
+    /**
+     * Loads the log into memory.
+     *
+     * @return the length of the valid part of the file.
+     */
+    private long replay() throws IOException {
+        long start = System.nanoTime();
+        CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        long valid = 0;
+        int points = 0;
+        try (DataInputStream in = new DataInputStream(counter)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Formato desconhecido: " + file);
+            }
+            valid = counter.count;
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    break;
+                }
+                if (type == PAIR) {
+                    String from = CurrencyCodes.unpack(in.readShort());
+                    String to = CurrencyCodes.unpack(in.readShort());
+                    Series series = new Series(seriesById.size(), in.readUnsignedByte(), retentionMillis);
+                    seriesById.add(series);
+                    seriesByPair.put(from + "/" + to, series);
+                } else if (type == POINT) {
+                    Series series = seriesById.get((int) readVarLong(in));
+                    long at = series.lastTime() + unZigZag(readVarLong(in));
+                    long value = series.lastRate() + unZigZag(readVarLong(in));
+                    series.append(at, value);
+                    points++;
+                } else {
+                    throw new IOException("Registo desconhecido no histórico de taxas: " + type);
+                }
+                valid = counter.count;
+            }
+        } catch (EOFException e) {
+            log.warn("Histórico de taxas truncado; descartando o último registo incompleto.");
+        }
+        log.info("Histórico de taxas carregado em {} ms: {} pares, {} pontos.",
+                (System.nanoTime() - start) / 1_000_000, seriesById.size(), points);
+        return valid;
+    }
+
+    /**
+     * Scale that keeps {@value #SIGNIFICANT_DIGITS} significant digits of the rate, and at least {@value #RATE_SCALE} decimals.
+     */
+    static int scaleFor(BigDecimal rate) {
+        BigDecimal stripped = rate.stripTrailingZeros();
+        // Expoente do primeiro dígito significativo: 0.0000393 -> -5, 150 -> 2
+        int exponent = stripped.precision() - stripped.scale() - 1;
+        return Math.max(RATE_SCALE, SIGNIFICANT_DIGITS - 1 - exponent);
+    }
+
+    private static void writePair(DataOutputStream out, String from, String to, int scale) throws IOException {
+        out.writeByte(PAIR);
+        out.writeShort(CurrencyCodes.pack(from));
+        out.writeShort(CurrencyCodes.pack(to));
+        out.writeByte(scale);
+    }
+
+    private static void writePoint(DataOutputStream out, int id, long timeDelta, long rateDelta) throws IOException {
+        out.writeByte(POINT);
+        writeVarLong(out, id);
+        writeVarLong(out, zigZag(timeDelta));
+        writeVarLong(out, zigZag(rateDelta));
+    }
+
+    // Variações negativas ficam pequenas: 0, -1, 1, -2, 2... -> 0, 1, 2, 3, 4...
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // 7 bits por byte; o bit mais alto indica que há mais bytes
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Número mal codificado no histórico de taxas.");
+    }
+
+    /**
+     * The points of one pair, in ascending time order.
+     */
+    private static final class Series {
+
+        static final long NONE = Long.MIN_VALUE;
+
+        final int id;
+        // Casas decimais dos valores de rates
+        final int scale;
+        private final long retentionMillis;
+        private long[] times = new long[16];
+        private long[] rates = new long[16];
+        private int size;
+
+        Series(int id, int scale, long retentionMillis) {
+            this.id = id;
+            this.scale = scale;
+            this.retentionMillis = retentionMillis;
+        }
+
+        /**
+         * Adds a point if it is newer than the last one and changes the rate. When the arrays are full,
+         * the points older than the retention horizon are dropped first; they only grow if that frees
+         * less than half of them.
+         */
+        synchronized boolean append(long time, long rate) {
+            if (size > 0 && (time <= times[size - 1] || rate == rates[size - 1])) {
+                return false;
+            }
+            if (size == times.length) {
+                discardBefore(time - retentionMillis);
+                if (size > times.length / 2) {
+                    times = Arrays.copyOf(times, times.length * 2);
+                    rates = Arrays.copyOf(rates, rates.length * 2);
+                }
+            }
+            times[size] = time;
+            rates[size] = rate;
+            size++;
+            return true;
+        }
+
+        /**
+         * Returns the rate of the last point at or before the given time, or {@link #NONE}.
+         */
+        synchronized long floor(long time) {
+            int index = Arrays.binarySearch(times, 0, size, time);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return index < 0 ? NONE : rates[index];
+        }
+
+        // Mantém o último ponto anterior ao horizonte: é a taxa em vigor nesse momento
+        private void discardBefore(long horizon) {
+            int index = Arrays.binarySearch(times, 0, size, horizon);
+            int first = index >= 0 ? index : -index - 2;
+            if (first <= 0) {
+                return;
+            }
+            System.arraycopy(times, first, times, 0, size - first);
+            System.arraycopy(rates, first, rates, 0, size - first);
+            size -= first;
+        }
+
+        synchronized long lastTime() {
+            return size == 0 ? 0 : times[size - 1];
+        }
+
+        synchronized long lastRate() {
+            return size == 0 ? 0 : rates[size - 1];
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.ExchangeRateResponse;
+import com.devlearning.currencyconverter.dto.LatestRatesResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * WebClient flavor of the {@link ExchangeRateApiClient}.
+ * <p>
+ * Calls are non-blocking: {@link #pairRate} and {@link #snapshot} return a {@link Mono}, and while the
+ * upstream answers no thread is waiting on it (responses are handled by a small, fixed set of event-loop
+ * threads). The blocking {@link RateProvider} methods subscribe and wait, so the rest of the application
+ * can use either flavor unchanged.
+ * <p>
+ * URLs, response checks and error messages are those of the blocking flavor ({@link ExchangeRateApi}).
+ * An empty response body is a failure, as it is there: no call ever completes with a null rate.
+ */
+public class ReactiveExchangeRateApiClient implements RateProvider {
+
+    private final WebClient webClient;
+    private final ExchangeRateApi api;
+
+    /**
+     * @param webClient The client used for the HTTP calls (pooled connections and timeouts are set on it).
+     * @param apiUrl    Base URL of the API (currency.api.url).
+     * @param apiKey    Secret API key (currency.api.key, from secrets.properties).
+     */
+    public ReactiveExchangeRateApiClient(WebClient webClient, String apiUrl, String apiKey) {
+        this.webClient = webClient;
+        this.api = new ExchangeRateApi(apiUrl, apiKey);
+    }
+
+    @Override
+    public String name() {
+        return "exchangerate-api";
+    }
+
+    /**
+     * Non-blocking version of {@link #fetchPairRate}, with the same errors.
+     */
+    public Mono<BigDecimal> pairRate(String from, String to) {
+        return webClient.get()
+                .uri(api.pairUrl(from, to))
+                .retrieve()
+                .bodyToMono(ExchangeRateResponse.class)
+                .onErrorMap(e -> translate(e, ExchangeRateApi.invalidPairMessage(from, to)))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException(ExchangeRateApi.INVALID_RESPONSE)))
+                .map(ExchangeRateApi::rateOf);
+    }
+
+    /**
+     * Non-blocking version of {@link #fetchSnapshot}, with the same errors.
+     */
+    public Mono<RateSnapshot> snapshot(String base) {
+        return webClient.get()
+                .uri(api.latestUrl(base))
+                .retrieve()
+                .bodyToMono(LatestRatesResponse.class)
+                .onErrorMap(e -> translate(e, ExchangeRateApi.invalidBaseMessage(base)))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException(ExchangeRateApi.INVALID_RESPONSE)))
+                .map(ExchangeRateApi::snapshotOf);
+    }
+
+    @Override
+    public BigDecimal fetchPairRate(String from, String to) {
+        return pairRate(from, to).block();
+    }
+
+    @Override
+    public RateSnapshot fetchSnapshot(String base) {
+        return snapshot(base).block();
+    }
+
+    // Mesma tradução de erros da versão bloqueante: 4xx = moeda inválida, o resto = falha de comunicação
+    private static Throwable translate(Throwable error, String invalidCurrencyMessage) {
+        if (error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            return new IllegalArgumentException(invalidCurrencyMessage);
+        }
+        return new RuntimeException(ExchangeRateApi.COMMUNICATION_ERROR);
+    }
+}
@@ -0,0 +1,60 @@
+package com.devlearning.currencyconverter.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * {@link RateProvider} decorator that records every rate obtained in the {@link RateTimeSeries}.
+ * <p>
+ * Recording never fails the call: if the series cannot be written, the rate is still returned.
+ */
+public class RecordingRateProvider implements RateProvider, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordingRateProvider.class);
+
+    private final RateProvider delegate;
+    private final RateTimeSeries rateTimeSeries;
+
+    public RecordingRateProvider(RateProvider delegate, RateTimeSeries rateTimeSeries) {
+        this.delegate = delegate;
+        this.rateTimeSeries = rateTimeSeries;
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public BigDecimal fetchPairRate(String from, String to) {
+        BigDecimal rate = delegate.fetchPairRate(from, to);
+        try {
+            rateTimeSeries.record(from, to, rate, Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível registrar a taxa de {}/{} no histórico de taxas: {}", from, to, e.getMessage());
+        }
+        return rate;
+    }
+
+    @Override
+    public RateSnapshot fetchSnapshot(String base) {
+        RateSnapshot snapshot = delegate.fetchSnapshot(base);
+        try {
+            rateTimeSeries.record(snapshot);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível registrar a tabela de taxas no histórico de taxas: {}", e.getMessage());
+        }
+        return snapshot;
+    }
+
+    // Encerra o fornecedor decorado (ex.: as threads do HedgedRateProvider) quando o bean é destruído
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.exception.RatesUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guards the per-pair calls to the {@link RateProvider} ("pair" rate mode).
+ * <p>
+ * <ul>
+ *   <li>Failed calls are retried with exponential backoff and full jitter, at most
+ *   {@code maxAttempts} times per call, within {@code maxTotalMillis} of the first attempt and
+ *   within a {@link RetryBudget} shared by all calls. The caller usually holds the {@link RateCache}
+ *   single-flight slot of the pair, so every request waiting on that pair waits through the
+ *   retries too: the time cap bounds that wait.</li>
+ *   <li>A {@link CircuitBreaker} stops calling the upstream after repeated failures, so requests
+ *   fail immediately instead of each one waiting for a timeout.</li>
+ *   <li>The last rate fetched for each pair is remembered, so the caller can fall back to it
+ *   (flagged as stale) while the upstream is unavailable. After a restart, pairs not fetched yet fall
+ *   back to the stored rate table, if one was restored ({@link #seed}).</li>
+ * </ul>
+ * A 4xx answer (invalid currency) is a valid answer from a healthy upstream: it is neither retried
+ * nor counted as a failure.
+ */
+@Component
+public class ResilientRateClient {
+
+    private final RateProvider rateProvider;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxTotalNanos;
+
+    // Última taxa obtida de cada par ("USD/EUR"), usada como recurso quando a API falha
+    private final ConcurrentHashMap<String, KnownRate> lastKnown = new ConcurrentHashMap<>();
+    // Tabela restaurada no arranque, recurso dos pares ainda não obtidos nesta execução
+    private volatile RateSnapshot storedTable;
+    private final AtomicLong successfulFetches = new AtomicLong();
+
+    /**
+     * @param rateProvider     The source of the rates (the external API by default).
+     * @param failureThreshold Consecutive failures that open the circuit.
+     * @param openMillis       How long the circuit stays open before a trial call.
+     * @param maxAttempts      Attempts per call, including the first one (1 = no retries).
+     * @param baseDelayMillis  Backoff before the first retry; doubled for each following retry.
+     * @param maxDelayMillis   Upper bound of the backoff.
+     * @param maxTotalMillis   No retry is started if its backoff would end later than this after the first attempt.
+     * @param budgetRatio      Retries allowed per call, on average (see {@link RetryBudget}).
+     * @param budgetMax        Retries that can be made in a burst.
+     */
+    public ResilientRateClient(RateProvider rateProvider,
+                               @Value("${currency.upstream.breaker.failure-threshold:5}") int failureThreshold,
+                               @Value("${currency.upstream.breaker.open-ms:30000}") long openMillis,
+                               @Value("${currency.upstream.retry.max-attempts:3}") int maxAttempts,
+                               @Value("${currency.upstream.retry.base-delay-ms:100}") long baseDelayMillis,
+                               @Value("${currency.upstream.retry.max-delay-ms:1000}") long maxDelayMillis,
+                               @Value("${currency.upstream.retry.max-total-ms:1000}") long maxTotalMillis,
+                               @Value("${currency.upstream.retry.budget-ratio:0.1}") double budgetRatio,
+                               @Value("${currency.upstream.retry.budget-max:10}") int budgetMax) {
+        if (maxAttempts < 1 || baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis || maxTotalMillis < 0) {
+            throw new IllegalArgumentException("Configuração de repetições inválida.");
+        }
+        this.rateProvider = rateProvider;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, TimeUnit.MILLISECONDS.toNanos(openMillis), System::nanoTime);
+        this.retryBudget = new RetryBudget(budgetRatio, budgetMax);
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxTotalNanos = TimeUnit.MILLISECONDS.toNanos(maxTotalMillis);
+    }
+
+    /**
+     * Fetches the rate of a pair from the rate provider, retrying failures within the budget and the time cap.
+     *
+     * @param from Source currency code.
+     * @param to   Target currency code.
+     * @return the exchange rate for one unit of {@code from} in {@code to}.
+     * @throws IllegalArgumentException  if the upstream rejects the currencies.
+     * @throws RatesUnavailableException if the circuit is open.
+     * @throws RuntimeException          if every attempt failed.
+     */
+    public BigDecimal fetchPairRate(String from, String to) {
+        retryBudget.onCall();
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                throw new RatesUnavailableException("O serviço de câmbio está temporariamente indisponível. Tente novamente em instantes.");
+            }
+            BigDecimal rate = null;
+            RuntimeException failure = null;
+            boolean answered = false;
+            try {
+                rate = rateProvider.fetchPairRate(from, to);
+                answered = true;
+            } catch (IllegalArgumentException e) {
+                // A API respondeu (moeda inválida): não é uma falha do serviço
+                answered = true;
+                throw e;
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                // Liberta sempre o circuito, também quando a chamada lança um Error: senão uma chamada
+                // de teste (meio aberto) nunca terminaria e o circuito recusaria todas as seguintes
+                if (answered) {
+                    circuitBreaker.onSuccess();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+            }
+            if (failure == null) {
+                remember(from, to, rate, Instant.now());
+                successfulFetches.incrementAndGet();
+                return rate;
+            }
+            long backoff = backoffMillis(attempt);
+            if (attempt >= maxAttempts
+                    || System.nanoTime() - start + TimeUnit.MILLISECONDS.toNanos(backoff) > maxTotalNanos
+                    || !retryBudget.tryRetry()
+                    || !sleep(backoff)) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Returns the last rate successfully fetched for the pair, however old it is, or else the rate
+     * derived from the stored table restored at startup.
+     *
+     * @return the rate and when it was fetched, or null if the pair was never fetched nor restored.
+     */
+    public KnownRate lastKnown(String from, String to) {
+        KnownRate known = lastKnown.get(from + "/" + to);
+        if (known != null) {
+            return known;
+        }
+        RateSnapshot table = storedTable;
+        if (table != null && table.supports(from) && table.supports(to)) {
+            return new KnownRate(table.crossRate(from, to), table.getFetchedAt());
+        }
+        return null;
+    }
+
+    /**
+     * Uses a stored rate table as the last known rates of every pair it covers (warm start).
+     * Rates fetched afterwards take precedence; fallbacks keep the table's age.
+     */
+    public void seed(RateSnapshot table) {
+        storedTable = table;
+    }
+
+    /**
+     * @return how many rates have been fetched from the provider since startup.
+     */
+    public long successfulFetches() {
+        return successfulFetches.get();
+    }
+
+    /**
+     * Records a rate as the last known one for the pair, unless a more recent one is already known.
+     */
+    public void remember(String from, String to, BigDecimal rate, Instant fetchedAt) {
+        lastKnown.merge(from + "/" + to, new KnownRate(rate, fetchedAt),
+                (old, candidate) -> candidate.fetchedAt().isBefore(old.fetchedAt()) ? old : candidate);
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    /**
+     * @return true while the circuit is open or half-open, i.e. while calls to the upstream are refused or on trial.
+     */
+    public boolean isCircuitOpen() {
+        return circuitBreaker.state() != CircuitBreaker.State.CLOSED;
+    }
+
+    // Espera exponencial com "full jitter": um valor aleatório entre 0 e o limite da tentativa,
+    // para que as repetições de muitos pedidos não cheguem todas ao mesmo tempo
+    private long backoffMillis(int attempt) {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        return cap == 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * A rate together with the moment it was fetched from the upstream.
+     */
+    public record KnownRate(BigDecimal rate, Instant fetchedAt) {
+
+        public long ageSeconds() {
+            return Math.max(0, Duration.between(fetchedAt, Instant.now()).getSeconds());
+        }
+    }
+}
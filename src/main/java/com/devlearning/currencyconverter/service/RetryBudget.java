@@ -0,0 +1,45 @@
+package com.devlearning.currencyconverter.service;
+
+/**
+ * Caps retries to a fraction of the calls made (token bucket).
+ * <p>
+ * Every call deposits {@code ratio} tokens and every retry spends one, so with a ratio of 0.1
+ * retries add at most 10% to the upstream traffic. When the upstream is failing for everyone,
+ * the bucket empties and requests stop multiplying the load with retries.
+ */
+final class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    /**
+     * @param ratio     Tokens deposited per call (retries allowed per call, on average).
+     * @param maxTokens Bucket capacity; the bucket starts full, so a few retries are always possible.
+     */
+    RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens < 0) {
+            throw new IllegalArgumentException("O orçamento de repetições não pode ser negativo.");
+        }
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    synchronized void onCall() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Spends one token for a retry.
+     *
+     * @return false if the budget is exhausted and the retry must not be made.
+     */
+    synchronized boolean tryRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.BatchConversionResult;
+import com.devlearning.currencyconverter.dto.ConversionRequest;
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.model.User;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts an unbounded stream of amounts, one JSON object per line (NDJSON), for
+ * end-of-day reconciliation jobs that are too large for a JSON array.
+ * <p>
+ * The input is read one line at a time and results are written back as NDJSON in chunks of
+ * {@code currency.stream.chunk-size} lines, so memory stays bounded by the chunk size whatever the
+ * size of the input. Reading and writing are both blocking: if the client stops reading results,
+ * writing blocks and no more input is consumed, which is the backpressure of the stream.
+ * <p>
+ * When persistence is enabled, the history rows of each chunk are saved together with one saveAll
+ * (through the {@link HistoryWriter}, so in async write mode they are written in the background).
+ * <p>
+ * Each distinct pair is resolved once per chunk, not once per stream: a stream can run for hours,
+ * so the next chunk asks again and the freshness of the rate (and the retry of a failed pair) is
+ * left to the rate cache and its TTL.
+ */
+@Service
+public class StreamingConversionService {
+
+    private final ExchangeService exchangeService;
+    private final HistoryWriter historyWriter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public StreamingConversionService(ExchangeService exchangeService, HistoryWriter historyWriter,
+                                      Validator validator, ObjectMapper objectMapper,
+                                      @Value("${currency.stream.chunk-size:500}") int chunkSize) {
+        this.exchangeService = exchangeService;
+        this.historyWriter = historyWriter;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Converts every line of the input and writes one result line per input line, in order.
+     * Blank lines are skipped; malformed or invalid lines produce an error line and the stream goes on.
+     *
+     * @param input   NDJSON conversion requests.
+     * @param output  Where NDJSON results are written.
+     * @param persist Whether to save the conversions in the history.
+     * @return the number of lines processed.
+     */
+    public long convertStream(BufferedReader input, Writer output, boolean persist) throws IOException {
+        User currentUser = exchangeService.currentUser();
+        Map<String, PairOutcome> pairs = new HashMap<>();
+        List<BatchConversionResult> chunk = new ArrayList<>(chunkSize);
+        List<ConversionHistory> pending = new ArrayList<>(chunkSize);
+
+        long index = 0;
+        String line;
+        while ((line = input.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(convertLine(index, line, currentUser, pairs, pending));
+            index++;
+
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, pending, output, persist);
+                pairs.clear();
+            }
+        }
+        flush(chunk, pending, output, persist);
+        return index;
+    }
+
+    private BatchConversionResult convertLine(long index, String line, User currentUser,
+                                              Map<String, PairOutcome> pairs, List<ConversionHistory> pending) {
+        ConversionRequest request;
+        try {
+            request = objectMapper.readValue(line, ConversionRequest.class);
+        } catch (JacksonException e) {
+            return BatchConversionResult.failure(index, Map.of("error", "Formato de JSON inválido"));
+        }
+        if (request == null) {
+            return BatchConversionResult.failure(index, Map.of("request", "A linha não contém uma conversão"));
+        }
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<ConversionRequest> violation : validator.validate(request)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            return BatchConversionResult.failure(index, errors);
+        }
+
+        // Guarda a taxa (ou a mensagem de erro) de cada par até o fim do bloco
+        PairOutcome pair = pairs.computeIfAbsent(request.fromCurrency() + "/" + request.toCurrency(),
+                key -> PairOutcome.resolve(exchangeService, request.fromCurrency(), request.toCurrency()));
+        if (!pair.resolved()) {
+            return BatchConversionResult.failure(index, Map.of("error", pair.error()));
+        }
+
+        ConversionHistory transaction = new ConversionHistory(
+                currentUser,
+                request.fromCurrency(),
+                request.toCurrency(),
+                request.amount(),
+                ConversionMath.convert(request.amount(), pair.rate(), request.toCurrency()),
+                pair.rate()
+        );
+        transaction.setRateStale(pair.stale());
+        transaction.setRateAgeSeconds(pair.ageSeconds());
+        pending.add(transaction);
+        return BatchConversionResult.success(index, transaction);
+    }
+
+    /**
+     * Saves the pending rows (if enabled) and writes the results of the chunk.
+     * Rows are saved before writing, so in sync write mode the written results already carry their ids.
+     */
+    private void flush(List<BatchConversionResult> chunk, List<ConversionHistory> pending,
+                       Writer output, boolean persist) throws IOException {
+        if (persist && !pending.isEmpty()) {
+            historyWriter.saveAll(pending);
+        }
+        for (BatchConversionResult result : chunk) {
+            output.write(objectMapper.writeValueAsString(result));
+            output.write('\n');
+        }
+        output.flush();
+        chunk.clear();
+        pending.clear();
+    }
+}
@@ -0,0 +1,125 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Issues and verifies stateless, HMAC-signed access tokens.
+ * <p>
+ * A token is {@code base64url(payload) + "." + base64url(HMAC-SHA256(payload))}, where the payload is
+ * {@code id:role:expiresAt:username}. Verifying it is one HMAC over a few dozen bytes (microseconds),
+ * instead of the full BCrypt check that HTTP Basic runs on every request.
+ * <p>
+ * The signing key comes from {@code currency.auth.token-secret}, at least {@value #MIN_SECRET_BYTES} bytes
+ * (the size of the HMAC-SHA256 output). If it is not set, a random key is generated at startup, which
+ * means tokens stop being valid when the application restarts.
+ * <p>
+ * The role is signed into the token and not checked against the database again: a user who is
+ * demoted or removed keeps the access of the token until it expires. That is why the default TTL is
+ * short (15 minutes); clients log in again when it expires.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+
+    // Mac não é thread-safe: uma instância por thread
+    private final ThreadLocal<Mac> macs;
+
+    public TokenService(@Value("${currency.auth.token-secret:}") String secret,
+                        @Value("${currency.auth.token-ttl-seconds:900}") long ttlSeconds) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("currency.auth.token-secret não definido: usando chave aleatória (os tokens expiram ao reiniciar).");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            if (keyBytes.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("currency.auth.token-secret deve ter pelo menos " + MIN_SECRET_BYTES + " bytes.");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Issues a token for the user, valid for the configured TTL.
+     *
+     * @param user the authenticated user.
+     * @return the signed token.
+     */
+    public String issue(User user) {
+        long expiresAt = Instant.now().getEpochSecond() + ttlSeconds;
+        String payload = user.getId() + ":" + user.getRole() + ":" + expiresAt + ":" + user.getUsername();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * Verifies the signature and expiry of a token.
+     *
+     * @param token the token sent by the client.
+     * @return the principal it identifies, or null if the token is malformed, tampered with or expired.
+     */
+    public AuthenticatedUser verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payloadBytes))) {
+                return null;
+            }
+
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split(":", 4);
+            if (parts.length != 4 || Long.parseLong(parts[2]) <= Instant.now().getEpochSecond()) {
+                return null;
+            }
+            return new AuthenticatedUser(Long.valueOf(parts[0]), parts[3], parts[1]);
+        } catch (IllegalArgumentException e) {
+            // Base64 ou números inválidos (NumberFormatException também cai aqui)
+            return null;
+        }
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.model.User;
+import com.devlearning.currencyconverter.repository.UserRepository;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the database id of each authenticated username.
+ * <p>
+ * Conversions only need the user to fill the {@code user_id} foreign key of
+ * {@code ConversionHistory}. Once the id of a username is known, the user is returned as a
+ * JPA reference proxy ({@code getReferenceById}), which sets the foreign key without running
+ * a SELECT. Only the first conversion of each user after startup queries the database.
+ * <p>
+ * Requests authenticated with a token already carry the user id in their {@link AuthenticatedUser}
+ * principal and never touch the cache.
+ * <p>
+ * Only the id is cached, never the role or the password, so a role change needs no eviction. An entry
+ * goes stale only if a username is removed and created again with a new id. The application has no
+ * endpoint that removes or renames users, so the only caller of {@link #evict} is signup; a future
+ * endpoint that removes or renames users must call it too.
+ */
+@Component
+public class UserIdentityCache {
+
+    // Limite simples: se houver mais usuários ativos do que isto, o cache recomeça do zero
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+    private final ConcurrentHashMap<String, Long> idsByUsername = new ConcurrentHashMap<>();
+
+    public UserIdentityCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Returns the logged-in user, as a reference proxy when its id is already known.
+     *
+     * @return the User of the authenticated principal.
+     */
+    public User currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser tokenUser && tokenUser.id() != null) {
+            return userRepository.getReferenceById(tokenUser.id());
+        }
+
+        String username = authentication.getName();
+
+        Long id = idsByUsername.get(username);
+        if (id != null) {
+            return userRepository.getReferenceById(id);
+        }
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado!"));
+        if (user.getId() != null) {
+            if (idsByUsername.size() >= MAX_ENTRIES) {
+                idsByUsername.clear();
+            }
+            idsByUsername.put(username, user.getId());
+        }
+        return user;
+    }
+
+    /**
+     * Forgets the cached id of a username. Called on signup, and must be called by any code
+     * that removes a user or changes its username.
+     *
+     * @param username the username to evict.
+     */
+    public void evict(String username) {
+        idsByUsername.remove(username);
+    }
+}
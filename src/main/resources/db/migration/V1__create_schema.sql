@@ -0,0 +1,38 @@
+-- Esquema inicial: usuários e histórico de conversões.
+-- As sequências avançam de 50 em 50, igual ao allocationSize das entidades (ids alocados em bloco).
+
+create sequence tb_users_seq start with 1 increment by 50;
+create sequence conversion_history_seq start with 1 increment by 50;
+
+create table tb_users (
+    id       bigint       not null,
+    username varchar(255) not null,
+    password varchar(255) not null,
+    role     varchar(255),
+    constraint pk_tb_users primary key (id),
+    -- Também serve de índice para o login e para findByUserUsername
+    constraint uk_tb_users_username unique (username)
+);
+
+create table conversion_history (
+    id               bigint         not null,
+    user_id          bigint         not null,
+    from_currency    varchar(3)     not null,
+    to_currency      varchar(3)     not null,
+    original_amount  numeric(19, 4) not null,
+    converted_amount numeric(19, 4) not null,
+    exchange_rate    numeric(19, 10),
+    timestamp        timestamp(6),
+    constraint pk_conversion_history primary key (id)
+);
+
+-- Histórico paginado de cada usuário (mais recentes primeiro)
+create index idx_conversion_history_user_timestamp on conversion_history (user_id, timestamp);
+
+-- Consultas e relatórios por par de moedas
+create index idx_conversion_history_pair on conversion_history (from_currency, to_currency);
+
+-- Chave estrangeira criada depois dos índices, para reutilizar o índice (user_id, timestamp)
+-- em vez de o banco criar outro só sobre user_id
+alter table conversion_history
+    add constraint fk_conversion_history_user foreign key (user_id) references tb_users (id);
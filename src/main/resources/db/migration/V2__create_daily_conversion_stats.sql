@@ -0,0 +1,16 @@
+-- Totais diários por usuário e par de moedas, atualizados incrementalmente pela aplicação.
+-- A chave primária começa por (user_id, stat_date): as estatísticas de um período são lidas
+-- percorrendo só as linhas desses dias, sem tocar em conversion_history.
+
+create table daily_conversion_stats (
+    user_id                bigint         not null,
+    stat_date              date           not null,
+    from_currency          varchar(3)     not null,
+    to_currency            varchar(3)     not null,
+    conversion_count       bigint         not null,
+    total_original_amount  numeric(38, 4) not null,
+    total_converted_amount numeric(38, 4) not null,
+    total_exchange_rate    numeric(38, 10) not null,
+    constraint pk_daily_conversion_stats primary key (user_id, stat_date, from_currency, to_currency),
+    constraint fk_daily_conversion_stats_user foreign key (user_id) references tb_users (id)
+);
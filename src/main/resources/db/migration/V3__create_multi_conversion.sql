@@ -0,0 +1,22 @@
+-- Conversões de um valor para várias moedas de uma vez (ex.: preço de um produto em 30 moedas).
+-- Uma linha por pedido em vez de uma por moeda: as taxas de todas as moedas de destino ficam
+-- numa única coluna de texto ("EUR=0.925;GBP=0.79;..."); os valores convertidos são valor x taxa.
+
+create sequence multi_conversion_seq start with 1 increment by 50;
+
+create table multi_conversion (
+    id               bigint         not null,
+    user_id          bigint         not null,
+    from_currency    varchar(3)     not null,
+    original_amount  numeric(19, 4) not null,
+    target_count     integer        not null,
+    target_rates     varchar(8000)  not null,
+    rates_fetched_at timestamp(6)   not null,
+    timestamp        timestamp(6)   not null,
+    constraint pk_multi_conversion primary key (id)
+);
+
+create index idx_multi_conversion_user_timestamp on multi_conversion (user_id, timestamp);
+
+alter table multi_conversion
+    add constraint fk_multi_conversion_user foreign key (user_id) references tb_users (id);
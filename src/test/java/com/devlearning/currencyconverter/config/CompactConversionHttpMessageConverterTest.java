@@ -0,0 +1,82 @@
+package com.devlearning.currencyconverter.config;
+
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.service.ConversionMath;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactConversionHttpMessageConverterTest {
+
+    @Test
+    void deveLerOQueEscreveuComValoresEmPontoFixo() throws IOException {
+        ConversionHistory conversao = new ConversionHistory(null, "USD", "BRL", new BigDecimal("100.5"),
+                new BigDecimal("100.5").multiply(new BigDecimal("5.123456789012")), new BigDecimal("5.123456789012"));
+        conversao.setTimestamp(LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123_000_000));
+        conversao.setRateStale(true);
+        conversao.setRateAgeSeconds(140L);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactConversionHttpMessageConverter.write(conversao, bytes);
+        assertEquals(CompactConversionHttpMessageConverter.encodedLength(conversao), bytes.size());
+
+        CompactConversionHttpMessageConverter.Decoded lida =
+                CompactConversionHttpMessageConverter.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertNull(lida.id());
+        assertEquals("USD", lida.fromCurrency());
+        assertEquals("BRL", lida.toCurrency());
+        assertEquals(new BigDecimal("100.5000"), lida.originalAmount());
+        // 514.907407... arredondado a 4 casas; a taxa a 10 casas
+        assertEquals(new BigDecimal("514.9074"), lida.convertedAmount());
+        assertEquals(new BigDecimal("5.1234567890"), lida.exchangeRate());
+        assertEquals(conversao.getTimestamp(), lida.timestamp());
+        assertTrue(lida.rateStale());
+        assertEquals(140L, lida.rateAgeSeconds());
+    }
+
+    @Test
+    void deveOcupar38BytesSemId() throws IOException {
+        ConversionHistory conversao = new ConversionHistory(null, "USD", "EUR",
+                new BigDecimal("100"), new BigDecimal("92.5"), new BigDecimal("0.925"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactConversionHttpMessageConverter.write(conversao, bytes);
+
+        // Sem id: versão, flags, moedas, dois valores, taxa e data
+        assertEquals(38, bytes.size());
+    }
+
+    @Test
+    void deveOcupar46BytesContraMaisDe180DeJsonNumaConversaoGravada() throws IOException {
+        // A mesma conversão do ResponseEncodingBenchmark, já gravada (com id e data)
+        BigDecimal taxa = new BigDecimal("0.9251234567");
+        ConversionHistory conversao = new ConversionHistory(null, "USD", "EUR",
+                new BigDecimal("1234.56"), ConversionMath.convert(new BigDecimal("1234.56"), taxa, "EUR"), taxa);
+        ReflectionTestUtils.setField(conversao, "id", 123456L);
+        conversao.setTimestamp(LocalDateTime.of(2025, 1, 15, 10, 30, 0, 123_000_000));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactConversionHttpMessageConverter.write(conversao, bytes);
+        byte[] json = JsonMapper.builder().build().writeValueAsBytes(conversao);
+
+        assertEquals(46, bytes.size());
+        assertTrue(json.length > 180, "json=" + json.length);
+    }
+
+    @Test
+    void deveFalharQuandoOValorNaoCabeNumLong() {
+        ConversionHistory conversao = new ConversionHistory(null, "USD", "EUR",
+                new BigDecimal("1e30"), new BigDecimal("1e30"), BigDecimal.ONE);
+
+        assertThrows(ArithmeticException.class,
+                () -> CompactConversionHttpMessageConverter.write(conversao, new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.devlearning.currencyconverter.controller;
+
+import com.devlearning.currencyconverter.config.CompactConversionHttpMessageConverter;
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.service.ExchangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the content negotiation of {@code POST /api/exchange/convert} with the converters registered
+ * by Spring Boot: {@code application/x-conversion} selects {@link CompactConversionHttpMessageConverter},
+ * and JSON stays the answer for clients that accept anything.
+ */
+@SpringBootTest(properties = "currency.api.key=test")
+@AutoConfigureMockMvc
+@WithMockUser
+class ExchangeControllerContentNegotiationTest {
+
+    private static final String BODY = "{\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":1234.56}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ExchangeService exchangeService;
+
+    private ConversionHistory conversao;
+
+    @BeforeEach
+    void setUp() {
+        conversao = new ConversionHistory(null, "USD", "EUR",
+                new BigDecimal("1234.56"), new BigDecimal("1142.12"), new BigDecimal("0.9251234567"));
+        conversao.setTimestamp(LocalDateTime.of(2025, 1, 15, 10, 30));
+        when(exchangeService.convertCurrency(eq("USD"), eq("EUR"), any())).thenReturn(conversao);
+    }
+
+    @Test
+    void deveResponderEmBinarioQuandoOClientePedeApplicationXConversion() throws Exception {
+        MvcResult resposta = mockMvc.perform(post("/api/exchange/convert")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(CompactConversionHttpMessageConverter.MEDIA_TYPE)
+                        .content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CompactConversionHttpMessageConverter.MEDIA_TYPE))
+                .andReturn();
+
+        byte[] bytes = resposta.getResponse().getContentAsByteArray();
+        assertEquals(CompactConversionHttpMessageConverter.encodedLength(conversao), bytes.length);
+        CompactConversionHttpMessageConverter.Decoded lida =
+                CompactConversionHttpMessageConverter.read(new ByteArrayInputStream(bytes));
+        assertEquals("USD", lida.fromCurrency());
+        assertEquals("EUR", lida.toCurrency());
+        assertEquals(new BigDecimal("1142.1200"), lida.convertedAmount());
+        assertEquals(new BigDecimal("0.9251234567"), lida.exchangeRate());
+    }
+
+    @Test
+    void deveResponderEmJsonQuandoOClienteAceitaQualquerFormato() throws Exception {
+        mockMvc.perform(post("/api/exchange/convert")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.ALL)
+                        .content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.fromCurrency").value("USD"))
+                .andExpect(jsonPath("$.exchangeRate").value(0.9251234567));
+    }
+
+    @Test
+    void deveResponderEmJsonSemCabecalhoAccept() throws Exception {
+        mockMvc.perform(post("/api/exchange/convert")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.toCurrency").value("EUR"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.devlearning.currencyconverter.repository;
+
+import com.devlearning.currencyconverter.dto.ConversionHistoryView;
+import com.devlearning.currencyconverter.dto.HistoryCursor;
+import com.devlearning.currencyconverter.dto.HistoryFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryArchiveTest {
+
+    private static final HistoryFilter SEM_FILTROS = new HistoryFilter(null, null, null, null);
+
+    @TempDir
+    Path diretorio;
+
+    private HistoryArchive archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archive = new HistoryArchive(diretorio.toString(), 1000);
+        // Janeiro: ids 1 a 3; fevereiro: ids 4 e 5
+        escreverMes(YearMonth.of(2025, 1),
+                linha(1, "USD", "EUR", LocalDateTime.of(2025, 1, 5, 10, 0)),
+                linha(2, "USD", "BRL", LocalDateTime.of(2025, 1, 10, 10, 0)),
+                linha(3, "USD", "EUR", LocalDateTime.of(2025, 1, 20, 10, 0)));
+        escreverMes(YearMonth.of(2025, 2),
+                linha(4, "EUR", "BRL", LocalDateTime.of(2025, 2, 1, 8, 0)),
+                linha(5, "USD", "EUR", LocalDateTime.of(2025, 2, 3, 8, 0)));
+    }
+
+    @Test
+    void deveLerAsLinhasArquivadasDaMaisRecenteParaAMaisAntiga() {
+        List<ConversionHistoryView> linhas = archive.read(7L, SEM_FILTROS, null, 10);
+
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), linhas.stream().map(ConversionHistoryView::id).toList());
+        ConversionHistoryView primeira = linhas.get(0);
+        assertEquals("USD", primeira.fromCurrency());
+        assertEquals("EUR", primeira.toCurrency());
+        assertEquals(new BigDecimal("100.0000"), primeira.originalAmount());
+        assertEquals(new BigDecimal("0.8500000000"), primeira.exchangeRate());
+        assertEquals(LocalDateTime.of(2025, 2, 3, 8, 0), primeira.timestamp());
+    }
+
+    @Test
+    void devePaginarPeloCursorEntreMeses() {
+        List<ConversionHistoryView> pagina1 = archive.read(7L, SEM_FILTROS, null, 2);
+        ConversionHistoryView ultima = pagina1.get(1);
+        List<ConversionHistoryView> pagina2 = archive.read(7L, SEM_FILTROS, new HistoryCursor(ultima.timestamp(), ultima.id()), 2);
+
+        assertEquals(List.of(5L, 4L), pagina1.stream().map(ConversionHistoryView::id).toList());
+        assertEquals(List.of(3L, 2L), pagina2.stream().map(ConversionHistoryView::id).toList());
+    }
+
+    @Test
+    void deveAplicarOsFiltrosDeMoedaEData() {
+        HistoryFilter filtro = new HistoryFilter("USD", "EUR", LocalDateTime.of(2025, 1, 6, 0, 0), LocalDateTime.of(2025, 2, 3, 0, 0));
+
+        List<ConversionHistoryView> linhas = archive.read(7L, filtro, null, 10);
+
+        assertEquals(List.of(3L), linhas.stream().map(ConversionHistoryView::id).toList());
+    }
+
+    @Test
+    void deveIgnorarLinhasArquivadasDuasVezes() throws IOException {
+        // Simula um arquivamento interrompido antes de apagar as linhas da tabela
+        escreverMes(YearMonth.of(2025, 2), linha(5, "USD", "EUR", LocalDateTime.of(2025, 2, 3, 8, 0)));
+
+        List<ConversionHistoryView> linhas = archive.read(7L, SEM_FILTROS, null, 10);
+
+        assertEquals(5, linhas.size());
+    }
+
+    @Test
+    void naoDeveDeixarArquivoQuandoAEscritaNaoEConfirmada() throws IOException {
+        try (HistoryArchive.MonthWriter writer = archive.openMonth(8L, YearMonth.of(2025, 3))) {
+            writer.add(linha(10, "USD", "EUR", LocalDateTime.of(2025, 3, 1, 0, 0)));
+        }
+
+        try (Stream<Path> arquivos = Files.list(diretorio.resolve("user-8"))) {
+            assertEquals(0, arquivos.count());
+        }
+        assertTrue(archive.read(8L, SEM_FILTROS, null, 10).isEmpty());
+    }
+
+    @Test
+    void deveDescomprimirCadaMesUmaVezAoPaginar() throws IOException {
+        List<ConversionHistoryView> pagina1 = archive.read(7L, SEM_FILTROS, null, 1);
+
+        // Os arquivos de janeiro e fevereiro deixam de ser legíveis: as páginas seguintes vêm do cache
+        try (Stream<Path> arquivos = Files.walk(diretorio.resolve("user-7"))) {
+            for (Path arquivo : arquivos.filter(Files::isRegularFile).toList()) {
+                Files.write(arquivo, new byte[] {1, 2, 3});
+            }
+        }
+        ConversionHistoryView ultima = pagina1.get(0);
+        List<ConversionHistoryView> pagina2 = archive.read(7L, SEM_FILTROS, new HistoryCursor(ultima.timestamp(), ultima.id()), 1);
+
+        assertEquals(List.of(5L), pagina1.stream().map(ConversionHistoryView::id).toList());
+        assertEquals(List.of(4L), pagina2.stream().map(ConversionHistoryView::id).toList());
+    }
+
+    @Test
+    void deveRejeitarLinhaSemDataSemEstragarOArquivo() throws IOException {
+        try (HistoryArchive.MonthWriter writer = archive.openMonth(8L, YearMonth.of(2025, 3))) {
+            writer.add(linha(10, "USD", "EUR", LocalDateTime.of(2025, 3, 1, 0, 0)));
+            assertThrows(IllegalArgumentException.class, () -> writer.add(linha(11, "USD", "EUR", null)));
+            writer.add(linha(12, "USD", "EUR", LocalDateTime.of(2025, 3, 2, 0, 0)));
+            writer.commit();
+        }
+
+        List<ConversionHistoryView> linhas = archive.read(8L, SEM_FILTROS, null, 10);
+
+        assertEquals(List.of(12L, 10L), linhas.stream().map(ConversionHistoryView::id).toList());
+    }
+
+    private void escreverMes(YearMonth mes, ArchivedConversion... linhas) throws IOException {
+        try (HistoryArchive.MonthWriter writer = archive.openMonth(7L, mes)) {
+            for (ArchivedConversion linha : linhas) {
+                writer.add(linha);
+            }
+            writer.commit();
+        }
+    }
+
+    private static ArchivedConversion linha(long id, String from, String to, LocalDateTime timestamp) {
+        return new ArchivedConversion(7L, id, from, to,
+                new BigDecimal("100.0000"), new BigDecimal("85.0000"), new BigDecimal("0.8500000000"), timestamp);
+    }
+}
@@ -0,0 +1,82 @@
+package com.devlearning.currencyconverter.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the schema created by the Flyway migrations is used by the main queries:
+ * each test asks H2 for the plan of a query (EXPLAIN) and asserts that it names the expected index
+ * instead of scanning the whole table.
+ */
+@SpringBootTest(properties = "currency.api.key=test")
+@Transactional
+class SchemaIndexTest {
+
+    private static final long USER_ID = 1_000_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Dados suficientes para o otimizador preferir os índices a uma varredura
+        jdbcTemplate.update("insert into tb_users (id, username, password, role) values (?, 'plano', 'x', 'USER')", USER_ID);
+        String[][] pares = {{"USD", "EUR"}, {"EUR", "BRL"}, {"GBP", "JPY"}, {"USD", "BRL"}};
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Object[]> linhas = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String[] par = pares[i % pares.length];
+            linhas.add(new Object[]{USER_ID + i, par[0], par[1], Timestamp.valueOf(inicio.plusMinutes(i))});
+        }
+        jdbcTemplate.batchUpdate("""
+                insert into conversion_history
+                    (id, user_id, from_currency, to_currency, original_amount, converted_amount, exchange_rate, timestamp)
+                values (?, %d, ?, ?, 100, 85, 0.85, ?)""".formatted(USER_ID), linhas);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void deveUsarIndiceUsuarioDataNaPaginacaoDoHistorico() {
+        String plano = explain("""
+                select id, timestamp from conversion_history
+                where user_id = 1000000 and timestamp < timestamp '2025-01-02 00:00:00'
+                order by timestamp desc, id desc
+                limit 50""");
+
+        assertTrue(plano.contains("IDX_CONVERSION_HISTORY_USER_TIMESTAMP"), plano);
+    }
+
+    @Test
+    void deveUsarIndiceDoParDeMoedas() {
+        String plano = explain("select count(*) from conversion_history where from_currency = 'GBP' and to_currency = 'JPY'");
+
+        assertTrue(plano.contains("IDX_CONVERSION_HISTORY_PAIR"), plano);
+    }
+
+    @Test
+    void deveUsarIndicesNaBuscaPorNomeDeUsuario() {
+        // Mesma forma da consulta gerada para findByUserUsername
+        String plano = explain("""
+                select h.id from conversion_history h
+                join tb_users u on u.id = h.user_id
+                where u.username = 'plano'""");
+
+        assertTrue(plano.contains("UK_TB_USERS_USERNAME"), plano);
+        assertTrue(plano.contains("IDX_CONVERSION_HISTORY_USER_TIMESTAMP"), plano);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class).toUpperCase();
+    }
+}
@@ -0,0 +1,143 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.BatchConversionResult;
+import com.devlearning.currencyconverter.dto.ConversionRequest;
+import com.devlearning.currencyconverter.model.User;
+import com.devlearning.currencyconverter.repository.ConversionHistoryRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchConversionServiceTest {
+
+    @Mock
+    private ExchangeService exchangeService;
+
+    @Mock
+    private ConversionHistoryRepository historyRepository;
+
+    @Mock
+    private ConversionStatsService statsService;
+
+    private ValidatorFactory validatorFactory;
+    private BatchConversionService batchService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        HistoryWriter historyWriter = new HistoryWriter(historyRepository, statsService, "sync", 1, 1, 50);
+        batchService = new BatchConversionService(exchangeService, historyWriter, validatorFactory.getValidator(), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void deveResolverCadaParUmaVezEManterAOrdem() {
+        when(exchangeService.currentUser()).thenReturn(new User("admin", "hash", "ADMIN"));
+        when(exchangeService.resolveRate("USD", "EUR"))
+                .thenReturn(new ExchangeService.ResolvedRate(new BigDecimal("0.85"), false));
+        when(historyRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchConversionResult> resultados = batchService.convertBatch(List.of(
+                new ConversionRequest("USD", "EUR", new BigDecimal("100")),
+                new ConversionRequest("USD", "eur", new BigDecimal("5")),   // inválido
+                new ConversionRequest("USD", "EUR", new BigDecimal("10"))
+        ));
+
+        assertEquals(3, resultados.size());
+        assertEquals(0, new BigDecimal("85").compareTo(resultados.get(0).result().getConvertedAmount()));
+        assertNull(resultados.get(1).result());
+        assertTrue(resultados.get(1).errors().containsKey("toCurrency"));
+        assertEquals(0, new BigDecimal("8.5").compareTo(resultados.get(2).result().getConvertedAmount()));
+
+        // O par USD/EUR aparece duas vezes, mas só é resolvido uma vez; a gravação é única
+        verify(exchangeService, times(1)).resolveRate("USD", "EUR");
+        verify(historyRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void deveFalharApenasOsItensDoParInvalido() {
+        when(exchangeService.currentUser()).thenReturn(new User("admin", "hash", "ADMIN"));
+        when(exchangeService.resolveRate("ZZZ", "EUR"))
+                .thenThrow(new IllegalArgumentException("Moeda inválida ou não suportada: ZZZ ou EUR"));
+        when(exchangeService.resolveRate("USD", "EUR"))
+                .thenReturn(new ExchangeService.ResolvedRate(new BigDecimal("0.85"), false));
+        when(historyRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchConversionResult> resultados = batchService.convertBatch(List.of(
+                new ConversionRequest("ZZZ", "EUR", new BigDecimal("100")),
+                new ConversionRequest("USD", "EUR", new BigDecimal("100"))
+        ));
+
+        assertTrue(resultados.get(0).errors().get("error").contains("Moeda inválida"));
+        assertNotNull(resultados.get(1).result());
+    }
+
+    @Test
+    void deveFalharApenasOItemQuandoAFalhaNaoTemMensagemOuATaxaVemNula() {
+        when(exchangeService.currentUser()).thenReturn(new User("admin", "hash", "ADMIN"));
+        when(exchangeService.resolveRate("USD", "EUR")).thenThrow(new IllegalStateException());
+        when(exchangeService.resolveRate("USD", "BRL")).thenReturn(new ExchangeService.ResolvedRate(null, false));
+        when(exchangeService.resolveRate("USD", "GBP"))
+                .thenReturn(new ExchangeService.ResolvedRate(new BigDecimal("0.75"), false));
+        when(historyRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchConversionResult> resultados = batchService.convertBatch(List.of(
+                new ConversionRequest("USD", "EUR", new BigDecimal("100")),
+                new ConversionRequest("USD", "BRL", new BigDecimal("100")),
+                new ConversionRequest("USD", "GBP", new BigDecimal("100"))
+        ));
+
+        // Sem mensagem, o erro leva o nome da exceção; a taxa nula falha o par em vez do lote inteiro
+        assertEquals("IllegalStateException", resultados.get(0).errors().get("error"));
+        assertNull(resultados.get(1).result());
+        assertNotNull(resultados.get(1).errors().get("error"));
+        assertNotNull(resultados.get(2).result());
+    }
+
+    @Test
+    void deveInformarAIdadeDaTaxaDesatualizada() {
+        when(exchangeService.currentUser()).thenReturn(new User("admin", "hash", "ADMIN"));
+        when(exchangeService.resolveRate("USD", "EUR"))
+                .thenReturn(new ExchangeService.ResolvedRate(new BigDecimal("0.85"), true, 900L));
+        when(historyRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchConversionResult> resultados = batchService.convertBatch(List.of(
+                new ConversionRequest("USD", "EUR", new BigDecimal("100")),
+                new ConversionRequest("USD", "EUR", new BigDecimal("10"))
+        ));
+
+        // Os dois itens usam a mesma taxa antiga: ambos levam a marca e a idade
+        for (BatchConversionResult resultado : resultados) {
+            assertTrue(resultado.result().isRateStale());
+            assertEquals(900L, resultado.result().getRateAgeSeconds());
+        }
+    }
+
+    @Test
+    void deveRejeitarLoteAcimaDoLimite() {
+        List<ConversionRequest> lote = Collections.nCopies(101,
+                new ConversionRequest("USD", "EUR", BigDecimal.ONE));
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.convertBatch(lote));
+    }
+}
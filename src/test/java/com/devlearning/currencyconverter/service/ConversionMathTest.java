@@ -0,0 +1,100 @@
+package com.devlearning.currencyconverter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionMathTest {
+
+    private static final int AMOSTRAS = 200_000;
+
+    @Test
+    void deveArredondarParaAUnidadeMenorDaMoedaDeDestino() {
+        assertEquals(new BigDecimal("85.00"), ConversionMath.convert(new BigDecimal("100.00"), new BigDecimal("0.85"), "EUR"));
+        assertEquals(new BigDecimal("15025"), ConversionMath.convert(new BigDecimal("100.00"), new BigDecimal("150.246"), "JPY"));
+        assertEquals(new BigDecimal("37.700"), ConversionMath.convert(new BigDecimal("100"), new BigDecimal("0.377"), "BHD"));
+        // Meio exato: arredonda para o par
+        assertEquals(new BigDecimal("0.12"), ConversionMath.convert(new BigDecimal("0.125"), BigDecimal.ONE, "USD"));
+        assertEquals(new BigDecimal("0.14"), ConversionMath.convert(new BigDecimal("0.135"), BigDecimal.ONE, "USD"));
+    }
+
+    @Test
+    void deveUsarOExpoenteIsoDeCadaMoeda() {
+        assertEquals(2, ConversionMath.exponent("USD"));
+        assertEquals(0, ConversionMath.exponent("JPY"));
+        assertEquals(3, ConversionMath.exponent("KWD"));
+        assertEquals(ConversionMath.DEFAULT_EXPONENT, ConversionMath.exponent("XAU"));
+        assertEquals(ConversionMath.DEFAULT_EXPONENT, ConversionMath.exponent("ZZZ"));
+    }
+
+    @Test
+    void deveDarOMesmoResultadoQueBigDecimalParaValoresAleatorios() {
+        Random random = new Random(20250115);
+        RoundingMode[] modos = {RoundingMode.HALF_EVEN, RoundingMode.HALF_UP, RoundingMode.HALF_DOWN,
+                RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR};
+        for (int i = 0; i < AMOSTRAS; i++) {
+            BigDecimal valor = aleatorio(random, 1 + random.nextInt(16), random.nextInt(5));
+            BigDecimal taxa = aleatorio(random, 1 + random.nextInt(12), random.nextInt(16));
+            int expoente = random.nextInt(5);
+            RoundingMode modo = modos[random.nextInt(modos.length)];
+
+            BigDecimal esperado = valor.multiply(taxa).setScale(expoente, modo);
+            assertEquals(esperado, ConversionMath.convert(valor, taxa, expoente, modo),
+                    () -> valor + " x " + taxa + " (" + expoente + " casas, " + modo + ")");
+        }
+    }
+
+    @Test
+    void deveDarOMesmoResultadoQueBigDecimalNoNucleoEmLong() {
+        Random random = new Random(42);
+        for (int i = 0; i < AMOSTRAS; i++) {
+            long valor = random.nextLong() >> random.nextInt(64);
+            long taxa = random.nextLong() >> random.nextInt(64);
+            int deslocamento = random.nextInt(37) - 18;
+            RoundingMode modo = RoundingMode.values()[random.nextInt(RoundingMode.UNNECESSARY.ordinal())];
+
+            BigInteger produto = BigInteger.valueOf(valor).multiply(BigInteger.valueOf(taxa));
+            BigInteger esperado = new BigDecimal(produto, deslocamento).setScale(0, modo).unscaledValue();
+            long resultado = ConversionMath.multiply(valor, taxa, deslocamento, modo);
+            if (cabeNumLong(produto) && cabeNumLong(esperado)) {
+                assertEquals(esperado.longValueExact(), resultado, () -> valor + " x " + taxa + " / 10^" + deslocamento + " " + modo);
+            } else {
+                // Fora do intervalo de um long: o chamador usa BigDecimal
+                assertEquals(ConversionMath.OVERFLOW, resultado);
+            }
+        }
+    }
+
+    @Test
+    void deveRecorrerABigDecimalQuandoOProdutoNaoCabeNumLong() {
+        BigDecimal valor = new BigDecimal("98765432109876.54");
+        BigDecimal taxa = new BigDecimal("153.123456789012");
+
+        assertEquals(ConversionMath.OVERFLOW, ConversionMath.multiply(9876543210987654L, 153123456789012L, 14, RoundingMode.HALF_EVEN));
+        assertEquals(valor.multiply(taxa).setScale(0, RoundingMode.HALF_EVEN), ConversionMath.convert(valor, taxa, "JPY"));
+    }
+
+    @Test
+    void deveFalharComUnnecessaryQuandoHaArredondamento() {
+        assertThrows(ArithmeticException.class,
+                () -> ConversionMath.convert(new BigDecimal("1.005"), BigDecimal.ONE, 2, RoundingMode.UNNECESSARY));
+        assertEquals(new BigDecimal("1.50"), ConversionMath.convert(new BigDecimal("1.5"), BigDecimal.ONE, 2, RoundingMode.UNNECESSARY));
+    }
+
+    // Long.MIN_VALUE fica de fora: é o valor de ConversionMath.OVERFLOW
+    private static boolean cabeNumLong(BigInteger value) {
+        return value.bitLength() < 64 && value.longValue() != Long.MIN_VALUE;
+    }
+
+    // Valor positivo ou negativo com até 'digitos' dígitos e 'escala' casas decimais
+    private static BigDecimal aleatorio(Random random, int digitos, int escala) {
+        long limite = BigInteger.TEN.pow(digitos).longValueExact();
+        long unscaled = Math.floorMod(random.nextLong(), limite);
+        return BigDecimal.valueOf(random.nextBoolean() ? unscaled : -unscaled, escala);
+    }
+}
@@ -0,0 +1,119 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.DailyConversionStatsView;
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.model.DailyConversionStats;
+import com.devlearning.currencyconverter.model.DailyConversionStatsId;
+import com.devlearning.currencyconverter.model.User;
+import com.devlearning.currencyconverter.repository.DailyConversionStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConversionStatsServiceTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 3, 1);
+
+    @Mock
+    private DailyConversionStatsRepository repository;
+
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
+    private ConversionStatsService statsService;
+    private User joao;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new ConversionStatsService(repository, userIdentityCache);
+        joao = Mockito.mock(User.class);
+        lenient().when(joao.getId()).thenReturn(7L);
+    }
+
+    @Test
+    void deveGravarUmaLinhaPorParEDiaNoFlush() {
+        statsService.record(conversao("USD", "EUR", "100", "85", "0.85"));
+        statsService.record(conversao("USD", "EUR", "50", "42.5", "0.85"));
+        statsService.record(conversao("USD", "BRL", "10", "50", "5"));
+        when(repository.addTotals(any(), anyLong(), any(), any(), any())).thenReturn(1);
+
+        statsService.flush();
+
+        verify(repository).addTotals(new DailyConversionStatsId(7L, DIA, "USD", "EUR"),
+                2, new BigDecimal("150"), new BigDecimal("127.5"), new BigDecimal("1.70"));
+        verify(repository).addTotals(new DailyConversionStatsId(7L, DIA, "USD", "BRL"),
+                1, new BigDecimal("10"), new BigDecimal("50"), new BigDecimal("5"));
+        verify(repository, never()).save(any());
+
+        // Depois do flush não há nada pendente
+        statsService.flush();
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void deveCriarALinhaQuandoAindaNaoExiste() {
+        statsService.record(conversao("USD", "EUR", "100", "85", "0.85"));
+        when(repository.addTotals(any(), anyLong(), any(), any(), any())).thenReturn(0);
+
+        statsService.flush();
+
+        verify(repository).save(any(DailyConversionStats.class));
+    }
+
+    @Test
+    void deveManterOsTotaisQuandoOFlushFalha() {
+        statsService.record(conversao("USD", "EUR", "100", "85", "0.85"));
+        when(repository.addTotals(any(), anyLong(), any(), any(), any()))
+                .thenThrow(new RuntimeException("banco indisponível"))
+                .thenReturn(1);
+
+        statsService.flush();
+        statsService.flush();
+
+        verify(repository, times(2)).addTotals(new DailyConversionStatsId(7L, DIA, "USD", "EUR"),
+                1, new BigDecimal("100"), new BigDecimal("85"), new BigDecimal("0.85"));
+    }
+
+    @Test
+    void deveSomarOsTotaisGravadosComOsPendentes() {
+        DailyConversionStatsId chave = new DailyConversionStatsId(7L, DIA, "USD", "EUR");
+        when(userIdentityCache.currentUser()).thenReturn(joao);
+        when(repository.findForUser(7L, DIA, DIA)).thenReturn(List.of(new DailyConversionStats(
+                chave, 3, new BigDecimal("300"), new BigDecimal("255"), new BigDecimal("2.55"))));
+        statsService.record(conversao("USD", "EUR", "100", "85", "0.85"));
+
+        List<DailyConversionStatsView> stats = statsService.findForCurrentUser(DIA, DIA);
+
+        assertEquals(1, stats.size());
+        DailyConversionStatsView dia = stats.get(0);
+        assertEquals(4, dia.count());
+        assertEquals(0, new BigDecimal("400").compareTo(dia.totalOriginalAmount()));
+        assertEquals(0, new BigDecimal("340").compareTo(dia.totalConvertedAmount()));
+        assertEquals(0, new BigDecimal("0.85").compareTo(dia.averageRate()));
+    }
+
+    @Test
+    void deveRejeitarPeriodoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> statsService.findForCurrentUser(DIA, DIA.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> statsService.findForCurrentUser(DIA, DIA.plusDays(400)));
+    }
+
+    private ConversionHistory conversao(String from, String to, String amount, String converted, String rate) {
+        ConversionHistory transaction = new ConversionHistory(joao, from, to,
+                new BigDecimal(amount), new BigDecimal(converted), new BigDecimal(rate));
+        transaction.setTimestamp(DIA.atTime(10, 30));
+        return transaction;
+    }
+}
@@ -0,0 +1,32 @@
+package com.devlearning.currencyconverter.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyCodesTest {
+
+    @Test
+    void deveConverterCodigoEmNumeroEDeVolta() {
+        assertEquals(0, CurrencyCodes.pack("AAA"));
+        assertEquals(CurrencyCodes.CODE_SPACE - 1, CurrencyCodes.pack("ZZZ"));
+        assertEquals("USD", CurrencyCodes.unpack(CurrencyCodes.pack("USD")));
+    }
+
+    @Test
+    void deveGerarNumerosDistintosParaTodosOsCodigos() {
+        // Ida e volta para todos os 17576 códigos: cada código tem o seu próprio número
+        for (int i = 0; i < CurrencyCodes.CODE_SPACE; i++) {
+            assertEquals(i, CurrencyCodes.pack(CurrencyCodes.unpack(i)));
+        }
+        assertTrue(CurrencyCodes.CODE_SPACE <= Short.MAX_VALUE);
+    }
+
+    @Test
+    void deveRejeitarCodigosMalFormados() {
+        assertEquals(CurrencyCodes.INVALID, CurrencyCodes.pack(null));
+        assertEquals(CurrencyCodes.INVALID, CurrencyCodes.pack("US"));
+        assertEquals(CurrencyCodes.INVALID, CurrencyCodes.pack("usd"));
+        assertEquals(CurrencyCodes.INVALID, CurrencyCodes.pack("US1"));
+    }
+}
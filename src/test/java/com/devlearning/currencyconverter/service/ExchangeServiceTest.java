@@ -1,13 +1,18 @@
 package com.devlearning.currencyconverter.service;
 
+import com.devlearning.currencyconverter.dto.ConversionHistoryView;
 import com.devlearning.currencyconverter.dto.ExchangeRateResponse;
+import com.devlearning.currencyconverter.dto.HistoryCursor;
+import com.devlearning.currencyconverter.dto.HistoryFilter;
+import com.devlearning.currencyconverter.dto.HistoryPage;
 import com.devlearning.currencyconverter.model.ConversionHistory;
 import com.devlearning.currencyconverter.model.User;
 import com.devlearning.currencyconverter.repository.ConversionHistoryRepository;
 import com.devlearning.currencyconverter.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -18,16 +23,20 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.util.List;
 
@@ -41,12 +50,34 @@ class ExchangeServiceTest {
     @Mock
     private ConversionHistoryRepository historyRepository;
 
+    @Mock
+    private ConversionStatsService statsService;
+
     @Mock
     private UserRepository userRepository;
 
-    // 2. Injetar os dublés dentro do nosso Service verdadeiro
-    @InjectMocks
+    private ResilientRateClient rateClient;
     private ExchangeService exchangeService;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 2. Injetar os dublés dentro do nosso Service verdadeiro
+    // (cliente e cache verdadeiros, para que o fluxo de conversão chame o RestTemplate simulado)
+    @BeforeEach
+    void setUp() {
+        ExchangeRateApiClient apiClient = new ExchangeRateApiClient(restTemplate, "http://api.test/", "fake-key");
+        rateClient = new ResilientRateClient(apiClient, 5, 30000, 1, 0, 0, 1000, 0.1, 10);
+        exchangeService = new ExchangeService(
+                rateClient,
+                historyRepository,
+                new HistoryWriter(historyRepository, statsService, "sync", 1, 1, 50),
+                new UserIdentityCache(userRepository),
+                new RateCache(60, 100),
+                new RateSnapshotService(apiClient, Runnable::run, "USD", 300, "pair"),
+                new RateTimeSeries("", "USD", 30),
+                new ConversionMetrics(meterRegistry),
+                "pair"
+        );
+    }
 
     @Test
     void deveConverterMoedaComSucesso() {
@@ -89,13 +120,36 @@ class ExchangeServiceTest {
 
             // --- VERIFICAÇÃO (Then) ---
             assertNotNull(resultado);
-            assertEquals(new BigDecimal("85.0000"), resultado.getConvertedAmount()); // 100 * 0.85
+            assertEquals(new BigDecimal("85.00"), resultado.getConvertedAmount()); // 100 * 0.85, em cêntimos de EUR
             assertEquals(fakeUser, resultado.getUser());
             
             // Verifica se o método save foi chamado 1 vez
             verify(historyRepository).save(any(ConversionHistory.class));
         }
     }
+    @Test
+    void deveCronometrarAConversaoEntreMoedasIguais() {
+        User fakeUser = new User();
+        fakeUser.setUsername("admin");
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(fakeUser));
+        when(historyRepository.save(any(ConversionHistory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        try (MockedStatic<SecurityContextHolder> mockedSecurity = Mockito.mockStatic(SecurityContextHolder.class)) {
+            SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+            Authentication authentication = Mockito.mock(Authentication.class);
+            mockedSecurity.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getName()).thenReturn("admin");
+
+            exchangeService.convertCurrency("USD", "USD", new BigDecimal("10.00"));
+        }
+
+        // Sem taxa a obter, mas usuário, cálculo e gravação são medidos como nas outras conversões
+        assertEquals(0, meterRegistry.get("currency.conversion.stage").tag("stage", "rate").timer().count());
+        assertEquals(1, meterRegistry.get("currency.conversion.stage").tag("stage", "user").timer().count());
+        assertEquals(1, meterRegistry.get("currency.conversion.stage").tag("stage", "save").timer().count());
+    }
+
     @Test
     void deveLancarErroQuandoMoedaForInvalida() {
         // --- CENÁRIO (Given) ---
@@ -184,4 +238,67 @@ class ExchangeServiceTest {
             verify(historyRepository).findByUserUsername("joao");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void deveUsarAUltimaTaxaConhecidaQuandoAApiEstiverIndisponivel() {
+        // A taxa foi obtida há 2 minutos; agora a API não responde
+        rateClient.remember("USD", "EUR", new BigDecimal("0.85"), Instant.now().minusSeconds(120));
+        when(restTemplate.getForObject(anyString(), eq(ExchangeRateResponse.class)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+        when(historyRepository.save(any(ConversionHistory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        try (MockedStatic<SecurityContextHolder> mockedSecurity = Mockito.mockStatic(SecurityContextHolder.class)) {
+            SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+            Authentication authentication = Mockito.mock(Authentication.class);
+
+            mockedSecurity.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getPrincipal()).thenReturn(new AuthenticatedUser(7L, "joao", "USER"));
+            when(userRepository.getReferenceById(7L)).thenReturn(new User());
+
+            ConversionHistory resultado = exchangeService.convertCurrency("USD", "EUR", new BigDecimal("100"));
+
+            assertEquals(new BigDecimal("85.00"), resultado.getConvertedAmount());
+            assertTrue(resultado.isRateStale());
+            assertTrue(resultado.getRateAgeSeconds() >= 120);
+        }
+    }
+
+    @Test
+    void deveRetornarPaginaDoHistoricoComCursorDaProximaPagina() {
+        LocalDateTime agora = LocalDateTime.of(2025, 3, 1, 12, 0);
+        List<ConversionHistoryView> linhas = List.of(
+                new ConversionHistoryView(30L, "USD", "EUR", BigDecimal.TEN, new BigDecimal("8.5"), new BigDecimal("0.85"), agora),
+                new ConversionHistoryView(20L, "USD", "EUR", BigDecimal.TEN, new BigDecimal("8.5"), new BigDecimal("0.85"), agora.minusMinutes(1)),
+                new ConversionHistoryView(10L, "USD", "EUR", BigDecimal.TEN, new BigDecimal("8.5"), new BigDecimal("0.85"), agora.minusMinutes(2)));
+
+        try (MockedStatic<SecurityContextHolder> mockedSecurity = Mockito.mockStatic(SecurityContextHolder.class)) {
+            SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+            Authentication authentication = Mockito.mock(Authentication.class);
+            User joao = Mockito.mock(User.class);
+
+            mockedSecurity.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+            when(securityContext.getAuthentication()).thenReturn(authentication);
+            when(authentication.getPrincipal()).thenReturn(new AuthenticatedUser(7L, "joao", "USER"));
+            when(userRepository.getReferenceById(7L)).thenReturn(joao);
+            when(joao.getId()).thenReturn(7L);
+            // Pedimos 2 por página: o serviço busca 3 para saber se há próxima página
+            when(historyRepository.findHistoryPage(eq(7L), any(HistoryFilter.class), isNull(), eq(3))).thenReturn(linhas);
+
+            HistoryPage pagina = exchangeService.findHistoryPage(null, 2, new HistoryFilter("usd", null, null, null));
+
+            assertEquals(2, pagina.items().size());
+            assertEquals(new HistoryCursor(agora.minusMinutes(1), 20L), HistoryCursor.decode(pagina.nextCursor()));
+            verify(historyRepository).findHistoryPage(7L, new HistoryFilter("USD", null, null, null), null, 3);
+        }
+    }
+
+    @Test
+    void deveRejeitarTamanhoDePaginaOuCursorInvalidos() {
+        HistoryFilter semFiltros = new HistoryFilter(null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> exchangeService.findHistoryPage(null, 0, semFiltros));
+        assertThrows(IllegalArgumentException.class, () -> exchangeService.findHistoryPage(null, 501, semFiltros));
+        assertThrows(IllegalArgumentException.class, () -> exchangeService.findHistoryPage("nao-e-um-cursor", 10, semFiltros));
+    }
+}
@@ -0,0 +1,55 @@
+package com.devlearning.currencyconverter.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileRateProviderTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveLerAsTaxasEDerivarAsCruzadas() throws IOException {
+        Path arquivo = escrever("base=USD\nEUR=0.8\nBRL=5.0\n");
+        FileRateProvider provider = new FileRateProvider(arquivo);
+
+        assertEquals(new BigDecimal("0.8"), provider.fetchPairRate("USD", "EUR"));
+        assertEquals(new BigDecimal("6.25"), provider.fetchPairRate("EUR", "BRL"));
+        assertThrows(IllegalArgumentException.class, () -> provider.fetchPairRate("USD", "ZZZ"));
+    }
+
+    @Test
+    void deveDevolverATabelaContraABasePedida() throws IOException {
+        FileRateProvider provider = new FileRateProvider(escrever("base=USD\nEUR=0.8\n"));
+
+        RateSnapshot tabela = provider.fetchSnapshot("EUR");
+
+        assertEquals("EUR", tabela.getBase());
+        assertEquals(new BigDecimal("1.25"), tabela.crossRate("EUR", "USD"));
+    }
+
+    @Test
+    void deveRelerOArquivoQuandoForAlterado() throws IOException {
+        Path arquivo = escrever("base=USD\nEUR=0.8\n");
+        FileRateProvider provider = new FileRateProvider(arquivo);
+        assertEquals(new BigDecimal("0.8"), provider.fetchPairRate("USD", "EUR"));
+
+        Files.writeString(arquivo, "base=USD\nEUR=0.9\n");
+        Files.setLastModifiedTime(arquivo, FileTime.from(Instant.now().plusSeconds(5)));
+
+        assertEquals(new BigDecimal("0.9"), provider.fetchPairRate("USD", "EUR"));
+    }
+
+    private Path escrever(String conteudo) throws IOException {
+        return Files.writeString(diretorio.resolve("rates.properties"), conteudo);
+    }
+}
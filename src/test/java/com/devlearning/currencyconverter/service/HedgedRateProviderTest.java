@@ -0,0 +1,128 @@
+package com.devlearning.currencyconverter.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedRateProviderTest {
+
+    private HedgedRateProvider hedged;
+
+    @AfterEach
+    void tearDown() {
+        hedged.close();
+    }
+
+    @Test
+    void naoDevePerguntarAoSecundarioQuandoOPrimarioERapido() {
+        FakeProvider primario = new FakeProvider("0.85", 0, false);
+        FakeProvider secundario = new FakeProvider("0.86", 0, false);
+        hedged = new HedgedRateProvider(primario, secundario, 200, 4);
+
+        assertEquals(new BigDecimal("0.85"), hedged.fetchPairRate("USD", "EUR"));
+        assertEquals(0, secundario.chamadas.get());
+    }
+
+    @Test
+    void deveUsarASegundaRespostaQuandoOPrimarioForLento() {
+        FakeProvider primario = new FakeProvider("0.85", 2000, false);
+        FakeProvider secundario = new FakeProvider("0.86", 0, false);
+        hedged = new HedgedRateProvider(primario, secundario, 50, 4);
+
+        long inicio = System.nanoTime();
+        BigDecimal taxa = hedged.fetchPairRate("USD", "EUR");
+        long decorridoMillis = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(new BigDecimal("0.86"), taxa);
+        assertTrue(decorridoMillis < 1000, "demorou " + decorridoMillis + " ms");
+    }
+
+    @Test
+    void devePerguntarAoSecundarioDeImediatoQuandoOPrimarioFalhar() {
+        FakeProvider primario = new FakeProvider("0.85", 0, true);
+        FakeProvider secundario = new FakeProvider("0.86", 0, false);
+        hedged = new HedgedRateProvider(primario, secundario, 5000, 4);
+
+        assertEquals(new BigDecimal("0.86"), hedged.fetchPairRate("USD", "EUR"));
+    }
+
+    @Test
+    void deveLancarOErroDoPrimarioQuandoAmbosFalharem() {
+        hedged = new HedgedRateProvider(new FakeProvider("0.85", 0, true), new FakeProvider("0.86", 0, true), 10, 4);
+
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> hedged.fetchPairRate("USD", "EUR"));
+        assertEquals("falha em 0.85", erro.getMessage());
+    }
+
+    @Test
+    void naoDevePerguntarAoSecundarioQuandoOPedidoForInvalido() {
+        FakeProvider secundario = new FakeProvider("0.86", 0, false);
+        hedged = new HedgedRateProvider(new FakeProvider("0.85", 0, true, new IllegalArgumentException("Moeda inválida")),
+                secundario, 5000, 4);
+
+        assertThrows(IllegalArgumentException.class, () -> hedged.fetchPairRate("USD", "ZZZ"));
+        assertEquals(0, secundario.chamadas.get());
+    }
+
+    @Test
+    void naoDeveFazerRequisicaoDeReservaComOPoolCheio() {
+        // Uma única thread: ocupada pelo primário lento, não sobra lugar para o secundário
+        FakeProvider primario = new FakeProvider("0.85", 300, false);
+        FakeProvider secundario = new FakeProvider("0.86", 0, false);
+        hedged = new HedgedRateProvider(primario, secundario, 10, 1);
+
+        assertEquals(new BigDecimal("0.85"), hedged.fetchPairRate("USD", "EUR"));
+        assertEquals(0, secundario.chamadas.get());
+    }
+
+    /**
+     * Fornecedor falso com latência e falha configuráveis.
+     */
+    private static class FakeProvider implements RateProvider {
+
+        private final BigDecimal rate;
+        private final long latencyMillis;
+        private final boolean fails;
+        private final RuntimeException error;
+        final AtomicInteger chamadas = new AtomicInteger();
+
+        FakeProvider(String rate, long latencyMillis, boolean fails) {
+            this(rate, latencyMillis, fails, null);
+        }
+
+        FakeProvider(String rate, long latencyMillis, boolean fails, RuntimeException error) {
+            this.rate = new BigDecimal(rate);
+            this.latencyMillis = latencyMillis;
+            this.fails = fails;
+            this.error = error;
+        }
+
+        @Override
+        public String name() {
+            return "fake-" + rate;
+        }
+
+        @Override
+        public BigDecimal fetchPairRate(String from, String to) {
+            chamadas.incrementAndGet();
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fails) {
+                throw error != null ? error : new RuntimeException("falha em " + rate);
+            }
+            return rate;
+        }
+
+        @Override
+        public RateSnapshot fetchSnapshot(String base) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.model.ConversionHistory;
+import com.devlearning.currencyconverter.repository.ConversionHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryWriterTest {
+
+    @Mock
+    private ConversionHistoryRepository repository;
+
+    @Mock
+    private ConversionStatsService statsService;
+
+    @Test
+    void deveGravarImediatamenteNoModoSync() {
+        HistoryWriter writer = new HistoryWriter(repository, statsService, "sync", 10, 10, 50);
+        ConversionHistory transaction = conversao();
+        when(repository.save(transaction)).thenReturn(transaction);
+
+        assertSame(transaction, writer.save(transaction));
+
+        verify(repository).save(transaction);
+        assertEquals(0, writer.pending());
+    }
+
+    @Test
+    void deveGravarEmLoteNoModoAsyncEDrenarAoParar() throws InterruptedException {
+        HistoryWriter writer = new HistoryWriter(repository, statsService, "async", 100, 100, 10);
+        writer.start();
+
+        for (int i = 0; i < 5; i++) {
+            writer.save(conversao());
+        }
+        writer.stop();
+
+        verify(repository, never()).save(any(ConversionHistory.class));
+        verify(repository, atLeastOnce()).saveAll(anyList());
+        assertEquals(0, writer.pending());
+    }
+
+    @Test
+    void deveGravarSincronamenteQuandoAFilaEstaCheia() throws InterruptedException {
+        // O escritor fica bloqueado no primeiro lote, e a fila (capacidade 1) enche
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch gravando = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            gravando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        when(repository.save(any(ConversionHistory.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        HistoryWriter writer = new HistoryWriter(repository, statsService, "async", 1, 1, 10);
+        writer.start();
+
+        writer.save(conversao());
+        assertTrue(gravando.await(5, TimeUnit.SECONDS));
+        writer.save(conversao()); // ocupa a única vaga da fila
+        ConversionHistory excedente = conversao();
+        writer.save(excedente);
+
+        verify(repository).save(excedente);
+        liberar.countDown();
+        writer.stop();
+        assertEquals(0, writer.pending());
+    }
+
+    @Test
+    void deveRegistrarEstatisticasSoDepoisDeGravar() {
+        HistoryWriter writer = new HistoryWriter(repository, statsService, "sync", 10, 10, 50);
+        ConversionHistory transaction = conversao();
+        when(repository.save(transaction)).thenThrow(new RuntimeException("banco indisponível"));
+
+        assertThrows(RuntimeException.class, () -> writer.save(transaction));
+
+        verify(statsService, never()).record(any());
+    }
+
+    @Test
+    void deveGravarSincronamenteDepoisDeParado() throws InterruptedException {
+        HistoryWriter writer = new HistoryWriter(repository, statsService, "async", 100, 100, 10);
+        writer.start();
+        writer.stop();
+        ConversionHistory transaction = conversao();
+        when(repository.save(transaction)).thenReturn(transaction);
+
+        // Depois da parada nada fica esquecido na fila: a linha é gravada na hora
+        writer.save(transaction);
+
+        verify(repository).save(transaction);
+        verify(statsService).record(transaction);
+        assertEquals(0, writer.pending());
+    }
+
+    @Test
+    void deveRegravarUmaAUmaQuandoOLoteFalhaEContarAsPerdidas() throws InterruptedException {
+        ConversionHistory boa = conversao();
+        ConversionHistory ruim = conversao();
+        when(repository.saveAll(anyList())).thenThrow(new RuntimeException("violação de restrição"));
+        when(repository.save(boa)).thenReturn(boa);
+        when(repository.save(ruim)).thenThrow(new RuntimeException("violação de restrição"));
+        HistoryWriter writer = new HistoryWriter(repository, statsService, "async", 100, 100, 10);
+        writer.start();
+
+        writer.saveAll(List.of(boa, ruim));
+        writer.stop();
+
+        verify(repository).save(boa);
+        verify(statsService).record(boa);
+        verify(statsService, never()).record(ruim);
+        assertEquals(1, writer.lost());
+    }
+
+    @Test
+    void deveGravarSincronamenteSeOEscritorMorrerPorUmErro() throws InterruptedException {
+        ConversionHistory gravada = conversao();
+        when(repository.saveAll(anyList())).thenThrow(new StackOverflowError());
+        when(repository.save(any(ConversionHistory.class))).thenReturn(gravada);
+        HistoryWriter writer = new HistoryWriter(repository, statsService, "async", 100, 100, 10);
+        writer.start();
+
+        // A thread de fundo morre no primeiro lote; daí em diante as linhas são gravadas na hora,
+        // em vez de ficarem numa fila que ninguém esvazia
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.save(conversao()) != gravada) {
+            assertTrue(System.nanoTime() < limite, "o escritor continua a aceitar linhas depois de parar");
+            Thread.sleep(5);
+        }
+        writer.stop();
+        assertEquals(0, writer.pending());
+    }
+
+    private static ConversionHistory conversao() {
+        return new ConversionHistory(null, "USD", "EUR", BigDecimal.TEN, new BigDecimal("8.5"), new BigDecimal("0.85"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.MultiConversionResult;
+import com.devlearning.currencyconverter.model.MultiConversion;
+import com.devlearning.currencyconverter.model.User;
+import com.devlearning.currencyconverter.repository.MultiConversionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MultiConversionServiceTest {
+
+    @Mock
+    private ExchangeService exchangeService;
+
+    @Mock
+    private MultiConversionRepository repository;
+
+    @Mock
+    private RateProvider rateProvider;
+
+    private MultiConversionService service;
+
+    @BeforeEach
+    void setUp() {
+        RateSnapshotService rateSnapshotService = new RateSnapshotService(rateProvider, Runnable::run, "USD", 300, "snapshot");
+        Map<String, BigDecimal> taxas = new LinkedHashMap<>();
+        taxas.put("EUR", new BigDecimal("0.8"));
+        taxas.put("GBP", new BigDecimal("0.5"));
+        taxas.put("JPY", new BigDecimal("150"));
+        rateSnapshotService.publish(new RateSnapshot("USD", taxas, Instant.now()));
+        service = new MultiConversionService(exchangeService, rateSnapshotService, repository, 3);
+    }
+
+    @Test
+    void deveConverterParaTodasAsMoedasComUmaUnicaLinhaNoHistorico() {
+        when(exchangeService.currentUser()).thenReturn(new User("admin", "hash", "ADMIN"));
+        when(repository.save(any(MultiConversion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MultiConversionResult resultado = service.convert("EUR", new BigDecimal("100"), null);
+
+        // Todas as moedas da tabela menos a de origem, pela ordem da tabela
+        List<String> moedas = resultado.conversions().stream().map(MultiConversionResult.Target::toCurrency).toList();
+        assertEquals(List.of("USD", "GBP", "JPY"), moedas);
+        assertEquals(0, new BigDecimal("125").compareTo(resultado.conversions().get(0).convertedAmount()));
+        assertEquals(0, new BigDecimal("62.5").compareTo(resultado.conversions().get(1).convertedAmount()));
+        assertEquals(0, new BigDecimal("18750").compareTo(resultado.conversions().get(2).convertedAmount()));
+        assertFalse(resultado.rateStale());
+        assertNull(resultado.rateAgeSeconds());
+
+        ArgumentCaptor<MultiConversion> linha = ArgumentCaptor.forClass(MultiConversion.class);
+        verify(repository, times(1)).save(linha.capture());
+        assertEquals(3, linha.getValue().getTargetCount());
+        assertEquals("USD=1.25;GBP=0.625;JPY=187.5", linha.getValue().getTargetRates());
+        verify(rateProvider, never()).fetchSnapshot(any());
+    }
+
+    @Test
+    void deveIgnorarMoedasRepetidas() {
+        when(exchangeService.currentUser()).thenReturn(new User("admin", "hash", "ADMIN"));
+        when(repository.save(any(MultiConversion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MultiConversionResult resultado = service.convert("USD", new BigDecimal("10"), List.of("JPY", "EUR", "JPY"));
+
+        assertEquals(2, resultado.conversions().size());
+        assertEquals("JPY", resultado.conversions().get(0).toCurrency());
+        assertEquals("EUR", resultado.conversions().get(1).toCurrency());
+    }
+
+    @Test
+    void deveRejeitarMoedaNaoSuportadaSemGravarNada() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.convert("USD", new BigDecimal("10"), List.of("EUR", "ZZZ")));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.convert("ZZZ", new BigDecimal("10"), List.of("EUR")));
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void deveRejeitarMoedasDeDestinoAlemDoLimite() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.convert("USD", new BigDecimal("10"), List.of("EUR", "GBP", "JPY", "BRL")));
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void deveAplicarOLimiteATodasAsMoedasDaTabela() {
+        RateSnapshotService rateSnapshotService = new RateSnapshotService(rateProvider, Runnable::run, "USD", 300, "snapshot");
+        rateSnapshotService.publish(new RateSnapshot("USD",
+                Map.of("EUR", new BigDecimal("0.8"), "GBP", new BigDecimal("0.5"), "JPY", new BigDecimal("150")), Instant.now()));
+        MultiConversionService limitado = new MultiConversionService(exchangeService, rateSnapshotService, repository, 2);
+
+        // Sem lista, "todas as moedas" são três destinos (USD, GBP, JPY): acima do limite de dois
+        assertThrows(IllegalArgumentException.class, () -> limitado.convert("EUR", new BigDecimal("10"), null));
+
+        verify(repository, never()).save(any());
+    }
+}
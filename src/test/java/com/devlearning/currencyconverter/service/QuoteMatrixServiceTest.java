@@ -0,0 +1,104 @@
+package com.devlearning.currencyconverter.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteMatrixServiceTest {
+
+    @Mock
+    private RateProvider rateProvider;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private RateSnapshotService rateSnapshotService;
+    private QuoteMatrixService service;
+
+    @BeforeEach
+    void setUp() {
+        rateSnapshotService = new RateSnapshotService(rateProvider, Runnable::run, "USD", 300, "snapshot");
+        rateSnapshotService.publish(tabela(new BigDecimal("0.8"), Instant.now()));
+        service = new QuoteMatrixService(rateSnapshotService, jsonMapper, 300);
+    }
+
+    @Test
+    void deveSerializarAMatrizUmaVezPorTabela() {
+        QuoteMatrixService.SerializedQuotes primeira = service.quotes(null);
+        QuoteMatrixService.SerializedQuotes segunda = service.quotes(List.of());
+
+        // Os pedidos seguintes recebem os mesmos bytes, sem nova serialização
+        assertSame(primeira, segunda);
+
+        JsonNode matriz = jsonMapper.readTree(primeira.body());
+        assertEquals("USD", matriz.get("currencies").get(0).asString());
+        assertEquals(3, matriz.get("rates").size());
+        // EUR -> GBP = 0.5 / 0.8
+        assertEquals(0, new BigDecimal("0.625").compareTo(matriz.get("rates").get(1).get(2).decimalValue()));
+    }
+
+    @Test
+    void deveMudarOEtagQuandoATabelaMuda() {
+        QuoteMatrixService.SerializedQuotes antes = service.quotes(null);
+
+        rateSnapshotService.publish(tabela(new BigDecimal("0.81"), Instant.now().plusSeconds(1)));
+        QuoteMatrixService.SerializedQuotes depois = service.quotes(null);
+
+        assertNotEquals(antes.etag(), depois.etag());
+        assertTrue(depois.etag().startsWith("\"") && depois.etag().endsWith("\""));
+    }
+
+    @Test
+    void deveServirSubconjuntoPelaOrdemPedida() {
+        QuoteMatrixService.SerializedQuotes quotes = service.quotes(List.of("GBP", "EUR", "GBP"));
+
+        JsonNode matriz = jsonMapper.readTree(quotes.body());
+        assertEquals(2, matriz.get("currencies").size());
+        assertEquals("GBP", matriz.get("currencies").get(0).asString());
+        assertEquals(0, new BigDecimal("1.6").compareTo(matriz.get("rates").get(0).get(1).decimalValue()));
+        assertSame(quotes, service.quotes(List.of("GBP", "EUR")));
+        assertNotEquals(quotes.etag(), service.quotes(null).etag());
+    }
+
+    @Test
+    void deveRejeitarMoedaNaoSuportada() {
+        assertThrows(IllegalArgumentException.class, () -> service.quotes(List.of("USD", "ZZZ")));
+    }
+
+    @Test
+    void deveLimitarOCacheAoProximoRefresh() {
+        long maxAge = service.maxAgeSeconds(service.quotes(null));
+
+        assertTrue(maxAge > 290 && maxAge <= 300, "max-age: " + maxAge);
+    }
+
+    @Test
+    void naoDeveChamarOServicoDeCambioMesmoComTabelaAntiga() {
+        rateSnapshotService.publish(tabela(new BigDecimal("0.8"), Instant.now().minusSeconds(3600)));
+
+        // A atualização é do agendador: a matriz é servida da tabela publicada, sem I/O no pedido
+        assertNotNull(service.quotes(null).body());
+        verify(rateProvider, never()).fetchSnapshot(any());
+    }
+
+    private static RateSnapshot tabela(BigDecimal eur, Instant fetchedAt) {
+        Map<String, BigDecimal> taxas = new LinkedHashMap<>();
+        taxas.put("EUR", eur);
+        taxas.put("GBP", new BigDecimal("0.5"));
+        return new RateSnapshot("USD", taxas, fetchedAt);
+    }
+}
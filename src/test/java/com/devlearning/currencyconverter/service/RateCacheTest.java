@@ -0,0 +1,130 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.dto.RateCacheStats;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateCacheTest {
+
+    @Test
+    void deveReutilizarTaxaEmCacheSemChamarApiNovamente() {
+        RateCache cache = new RateCache(60, 10);
+        AtomicInteger chamadas = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            BigDecimal taxa = cache.get("USD", "EUR", (from, to) -> {
+                chamadas.incrementAndGet();
+                return new BigDecimal("0.85");
+            });
+            assertEquals(new BigDecimal("0.85"), taxa);
+        }
+
+        RateCacheStats stats = cache.stats();
+        assertEquals(1, chamadas.get());
+        assertEquals(4, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.loads());
+    }
+
+    @Test
+    void deveFazerApenasUmaChamadaParaPedidosConcorrentesDoMesmoPar() throws Exception {
+        RateCache cache = new RateCache(60, 10);
+        AtomicInteger chamadas = new AtomicInteger();
+        CountDownLatch liberarApi = new CountDownLatch(1);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<BigDecimal>> resultados = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                resultados.add(executor.submit(() -> cache.get("USD", "EUR", (from, to) -> {
+                    chamadas.incrementAndGet();
+                    // Segura a chamada "lenta" até todas as threads estarem à espera
+                    await(liberarApi);
+                    return new BigDecimal("0.85");
+                })));
+            }
+
+            // Espera até que todas as threads tenham falhado no cache antes de responder
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.stats().misses() < threads && System.nanoTime() < limite) {
+                Thread.sleep(5);
+            }
+            liberarApi.countDown();
+
+            for (Future<BigDecimal> resultado : resultados) {
+                assertEquals(new BigDecimal("0.85"), resultado.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, chamadas.get());
+        assertEquals(1, cache.stats().loads());
+    }
+
+    @Test
+    void naoDeveGuardarFalhasNoCache() {
+        RateCache cache = new RateCache(60, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get("ZZZ", "EUR", (from, to) -> {
+            throw new IllegalArgumentException("Moeda inválida");
+        }));
+        BigDecimal taxa = cache.get("ZZZ", "EUR", (from, to) -> BigDecimal.TEN);
+
+        assertEquals(BigDecimal.TEN, taxa);
+        assertEquals(1, cache.stats().loadFailures());
+    }
+
+    @Test
+    void deveRespeitarTamanhoMaximo() {
+        RateCache cache = new RateCache(60, 10);
+
+        for (int i = 0; i < 50; i++) {
+            cache.get("USD", "C" + i, (from, to) -> BigDecimal.ONE);
+        }
+
+        assertTrue(cache.stats().size() <= 10);
+        assertTrue(cache.stats().evictions() > 0);
+    }
+
+    @Test
+    void deveServirATabelaRestauradaSoPeloRestoDoTtl() {
+        RateCache cache = new RateCache(60, 10);
+        Map<String, BigDecimal> taxas = Map.of("USD", BigDecimal.ONE, "EUR", new BigDecimal("0.8"));
+
+        // Tabela de há 90 s com TTL de 60 s: já não serve
+        assertFalse(cache.seed(new RateSnapshot("USD", taxas, Instant.now().minusSeconds(90))));
+        assertTrue(cache.seed(new RateSnapshot("USD", taxas, Instant.now().minusSeconds(10))));
+
+        BigDecimal taxa = cache.get("EUR", "USD", (from, to) -> {
+            throw new AssertionError("A API não deveria ser chamada");
+        });
+
+        assertEquals(0, new BigDecimal("1.25").compareTo(taxa));
+        assertEquals(1, cache.stats().hits());
+        // Par fora da tabela: carrega normalmente
+        assertEquals(BigDecimal.TEN, cache.get("USD", "BRL", (from, to) -> BigDecimal.TEN));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.exception.RatesUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateSnapshotServiceTest {
+
+    // No modo "pair" a carga corre fora da thread que lê a tabela
+    private static final Executor EM_SEGUNDO_PLANO = runnable -> new Thread(runnable).start();
+
+    @Mock
+    private ExchangeRateApiClient apiClient;
+
+    @Test
+    void deveFalharSeNenhumaTabelaFoiCarregada() {
+        RateSnapshotService service = new RateSnapshotService(apiClient, Runnable::run, "USD", 300, "snapshot");
+
+        assertThrows(RatesUnavailableException.class, service::current);
+    }
+
+    @Test
+    void deveManterUltimaTabelaValidaQuandoAtualizacaoFalhar() {
+        RateSnapshot tabela = new RateSnapshot("USD", Map.of("USD", BigDecimal.ONE, "EUR", new BigDecimal("0.9")), Instant.now());
+        when(apiClient.fetchSnapshot("USD"))
+                .thenReturn(tabela)
+                .thenThrow(new RuntimeException("Erro ao comunicar com o serviço de câmbio."));
+        RateSnapshotService service = new RateSnapshotService(apiClient, Runnable::run, "USD", 300, "snapshot");
+
+        assertTrue(service.refresh());
+        assertFalse(service.isStale(service.current()));
+
+        // A segunda atualização falha: continua a servir a mesma tabela, marcada como desatualizada
+        assertFalse(service.refresh());
+        assertSame(tabela, service.current());
+        assertTrue(service.isStale(service.current()));
+    }
+
+    @Test
+    void deveMarcarComoDesatualizadaTabelaMuitoAntiga() {
+        RateSnapshotService service = new RateSnapshotService(apiClient, Runnable::run, "USD", 300, "snapshot");
+        service.publish(new RateSnapshot("USD", Map.of("USD", BigDecimal.ONE), Instant.now().minusSeconds(3600)));
+
+        assertTrue(service.isStale(service.current()));
+    }
+
+    @Test
+    void naoDeveChamarOServicoDeCambioAoLerATabelaEmModoSnapshot() {
+        RateSnapshotService service = new RateSnapshotService(apiClient, Runnable::run, "USD", 300, "snapshot");
+        RateSnapshot antiga = new RateSnapshot("USD", Map.of("USD", BigDecimal.ONE), Instant.now().minusSeconds(3600));
+        service.publish(antiga);
+
+        // Quem atualiza é o agendador: a leitura devolve a tabela atual, mesmo antiga, sem I/O
+        assertSame(antiga, service.currentTable());
+        verify(apiClient, never()).fetchSnapshot(any());
+    }
+
+    @Test
+    void deveCarregarTabelaEmSegundoPlanoSemBloquearALeituraEmModoPair() {
+        RateSnapshot nova = new RateSnapshot("USD", Map.of("USD", BigDecimal.ONE, "EUR", new BigDecimal("0.9")), Instant.now());
+        when(apiClient.fetchSnapshot("USD")).thenReturn(nova);
+        RateSnapshotService service = new RateSnapshotService(apiClient, EM_SEGUNDO_PLANO, "USD", 300, "pair");
+        RateSnapshot antiga = new RateSnapshot("USD", Map.of("USD", BigDecimal.ONE), Instant.now().minusSeconds(3600));
+        service.publish(antiga);
+
+        // A leitura devolve logo a tabela antiga; a nova é carregada numa thread à parte
+        assertSame(antiga, service.currentTable());
+        verify(apiClient, timeout(1000)).fetchSnapshot("USD");
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            while (service.current() != nova) {
+                Thread.onSpinWait();
+            }
+        });
+
+        // Tabela nova e dentro do intervalo: não há nova carga
+        assertSame(nova, service.currentTable());
+        verify(apiClient, times(1)).fetchSnapshot("USD");
+    }
+
+    @Test
+    void naoDeveCarregarATabelaAntesDoPrimeiroUsoEmModoPair() {
+        RateSnapshot nova = new RateSnapshot("USD", Map.of("USD", BigDecimal.ONE), Instant.now());
+        when(apiClient.fetchSnapshot("USD")).thenReturn(nova);
+        RateSnapshotService service = new RateSnapshotService(apiClient, Runnable::run, "USD", 300, "pair");
+        verify(apiClient, never()).fetchSnapshot(any());
+
+        // O primeiro pedido que precisa da tabela dispara a carga
+        assertSame(nova, service.currentTable());
+        verify(apiClient, times(1)).fetchSnapshot("USD");
+    }
+
+    @Test
+    void naoDeveRepetirACargaLogoAposUmaFalha() {
+        when(apiClient.fetchSnapshot("USD")).thenThrow(new RuntimeException("Erro ao comunicar com o serviço de câmbio."));
+        RateSnapshotService service = new RateSnapshotService(apiClient, EM_SEGUNDO_PLANO, "USD", 300, "pair");
+
+        assertThrows(RatesUnavailableException.class, service::currentTable);
+        verify(apiClient, timeout(1000)).fetchSnapshot("USD");
+
+        // Sem tabela, a leitura falha de imediato e não dispara outra carga antes do intervalo de nova tentativa
+        assertThrows(RatesUnavailableException.class, service::currentTable);
+        assertThrows(RatesUnavailableException.class, service::currentTable);
+        verify(apiClient, times(1)).fetchSnapshot("USD");
+    }
+}
@@ -0,0 +1,55 @@
+package com.devlearning.currencyconverter.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotStoreTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveRestaurarATabelaGuardada() throws IOException {
+        Instant obtidaEm = Instant.parse("2025-03-01T12:00:00Z");
+        RateSnapshot tabela = new RateSnapshot("USD",
+                Map.of("EUR", new BigDecimal("0.9215"), "JPY", new BigDecimal("149.53"), "BRL", new BigDecimal("5.0312")), obtidaEm);
+        RateSnapshotStore store = new RateSnapshotStore(diretorio.resolve("rates.bin").toString());
+
+        store.save(tabela);
+        RateSnapshot restaurada = store.load();
+
+        assertEquals("USD", restaurada.getBase());
+        assertEquals(obtidaEm, restaurada.getFetchedAt());
+        assertEquals(tabela.getCurrencies(), restaurada.getCurrencies());
+        assertEquals(new BigDecimal("149.53"), restaurada.crossRate("USD", "JPY"));
+        assertEquals(tabela.crossRate("EUR", "BRL"), restaurada.crossRate("EUR", "BRL"));
+        // Cabeçalho de 18 bytes e 11 bytes por moeda
+        assertEquals(18 + 4 * 11, Files.size(diretorio.resolve("rates.bin")));
+    }
+
+    @Test
+    void deveDevolverNuloSemArquivo() throws IOException {
+        assertNull(new RateSnapshotStore(diretorio.resolve("nao-existe.bin").toString()).load());
+    }
+
+    @Test
+    void deveRejeitarArquivoTruncado() throws IOException {
+        Path arquivo = diretorio.resolve("rates.bin");
+        RateSnapshotStore store = new RateSnapshotStore(arquivo.toString());
+        store.save(new RateSnapshot("USD", Map.of("EUR", new BigDecimal("0.9")), Instant.now()));
+        byte[] conteudo = Files.readAllBytes(arquivo);
+        Files.write(arquivo, Arrays.copyOf(conteudo, conteudo.length - 3));
+
+        assertThrows(IOException.class, store::load);
+    }
+}
@@ -0,0 +1,47 @@
+package com.devlearning.currencyconverter.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotTest {
+
+    private final RateSnapshot snapshot = new RateSnapshot("USD", Map.of(
+            "USD", BigDecimal.ONE,
+            "EUR", new BigDecimal("0.9"),
+            "GBP", new BigDecimal("0.8"),
+            "JPY", new BigDecimal("150")
+    ), Instant.now());
+
+    @Test
+    void deveUsarTaxaDiretaQuandoOrigemForABase() {
+        assertEquals(new BigDecimal("0.9"), snapshot.crossRate("USD", "EUR"));
+    }
+
+    @Test
+    void deveDerivarTaxaCruzadaAtravesDaBase() {
+        // GBP -> JPY = (USD -> JPY) / (USD -> GBP) = 150 / 0.8
+        assertEquals(0, new BigDecimal("187.5").compareTo(snapshot.crossRate("GBP", "JPY")));
+    }
+
+    @Test
+    void deveArredondarComPrecisaoDefinida() {
+        // EUR -> USD = 1 / 0.9 = 1.11111111111 (12 dígitos significativos)
+        BigDecimal rate = snapshot.crossRate("EUR", "USD");
+
+        assertEquals(12, rate.precision());
+        assertEquals(new BigDecimal("1.11111111111"), rate);
+    }
+
+    @Test
+    void deveRejeitarMoedaForaDaTabela() {
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> snapshot.crossRate("ZZZ", "EUR"));
+
+        assertTrue(erro.getMessage().contains("Moeda inválida"));
+    }
+}
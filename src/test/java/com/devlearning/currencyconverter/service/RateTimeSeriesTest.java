@@ -0,0 +1,125 @@
+package com.devlearning.currencyconverter.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateTimeSeriesTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void deveDevolverATaxaEmVigorNoMomentoPedido() {
+        RateTimeSeries series = new RateTimeSeries("", "USD", 30);
+        series.record("USD", "EUR", new BigDecimal("0.90"), T0);
+        series.record("USD", "EUR", new BigDecimal("0.92"), T0.plusSeconds(3600));
+
+        assertEquals(0, new BigDecimal("0.90").compareTo(series.rateAsOf("USD", "EUR", T0)));
+        assertEquals(0, new BigDecimal("0.90").compareTo(series.rateAsOf("USD", "EUR", T0.plusSeconds(3599))));
+        assertEquals(0, new BigDecimal("0.92").compareTo(series.rateAsOf("USD", "EUR", T0.plusSeconds(3600))));
+        assertEquals(0, new BigDecimal("0.92").compareTo(series.rateAsOf("USD", "EUR", T0.plusSeconds(86400))));
+        // Antes do primeiro registo não há taxa
+        assertThrows(IllegalArgumentException.class, () -> series.rateAsOf("USD", "EUR", T0.minusSeconds(1)));
+    }
+
+    @Test
+    void deveDerivarTaxasInversasECruzadasPelaMoedaBase() {
+        RateTimeSeries series = new RateTimeSeries("", "USD", 30);
+        series.record(new RateSnapshot("USD", Map.of("EUR", new BigDecimal("0.8"), "BRL", new BigDecimal("5.0")), T0));
+
+        assertEquals(0, new BigDecimal("1.25").compareTo(series.rateAsOf("EUR", "USD", T0)));
+        assertEquals(0, new BigDecimal("6.25").compareTo(series.rateAsOf("EUR", "BRL", T0)));
+        assertThrows(IllegalArgumentException.class, () -> series.rateAsOf("EUR", "JPY", T0));
+    }
+
+    @Test
+    void deveDescartarDaMemoriaAsTaxasAnterioresAoHorizonte() {
+        RateTimeSeries series = new RateTimeSeries("", "USD", 1);
+        for (int i = 0; i < 100; i++) {
+            series.record("USD", "EUR", new BigDecimal("0.9").add(new BigDecimal(i).movePointLeft(4)), T0.plusSeconds(3600L * i));
+        }
+
+        // Cem horas de taxas com um dia de retenção: as primeiras saem, as do último dia ficam
+        assertThrows(IllegalArgumentException.class, () -> series.rateAsOf("USD", "EUR", T0));
+        assertEquals(0, new BigDecimal("0.9075").compareTo(series.rateAsOf("USD", "EUR", T0.plusSeconds(3600L * 75 + 10))));
+        assertEquals(0, new BigDecimal("0.9099").compareTo(series.rateAsOf("USD", "EUR", T0.plusSeconds(3600L * 99))));
+    }
+
+    @Test
+    void deveRecusarRetencaoNula() {
+        assertThrows(IllegalArgumentException.class, () -> new RateTimeSeries("", "USD", 0));
+    }
+
+    @Test
+    void deveRestaurarAsSeriesDoArquivo() throws IOException {
+        String arquivo = diretorio.resolve("rates.log").toString();
+        RateTimeSeries original = new RateTimeSeries(arquivo, "USD", 30);
+        original.open();
+        for (int i = 0; i < 100; i++) {
+            original.record("USD", "EUR", new BigDecimal("0.9").add(new BigDecimal(i).movePointLeft(4)), T0.plusSeconds(300L * i));
+        }
+        // Taxa repetida: não acrescenta nenhum ponto
+        original.record("USD", "EUR", new BigDecimal("0.9099"), T0.plusSeconds(300L * 100));
+        original.close();
+
+        RateTimeSeries restaurada = new RateTimeSeries(arquivo, "USD", 30);
+        restaurada.open();
+
+        assertEquals(0, new BigDecimal("0.9050").compareTo(restaurada.rateAsOf("USD", "EUR", T0.plusSeconds(300L * 50 + 10))));
+        // Cabeçalho, definição do par e 100 pontos em deltas: menos de 9 bytes por ponto
+        assertTrue(Files.size(Path.of(arquivo)) < 4 + 6 + 100 * 9, "tamanho: " + Files.size(Path.of(arquivo)));
+        restaurada.close();
+    }
+
+    @Test
+    void deveManterAPrecisaoDeTaxasMuitoPequenas() throws IOException {
+        String arquivo = diretorio.resolve("rates.log").toString();
+        RateTimeSeries original = new RateTimeSeries(arquivo, "USD", 30);
+        original.open();
+        original.record("VND", "USD", new BigDecimal("0.000039312345678"), T0);
+        original.record("USD", "JPY", new BigDecimal("151.2345678901"), T0);
+        original.close();
+
+        RateTimeSeries restaurada = new RateTimeSeries(arquivo, "USD", 30);
+        restaurada.open();
+        // Dez algarismos significativos, não seis como numa escala fixa de dez casas
+        assertEquals(new BigDecimal("0.00003931234568"), restaurada.rateAsOf("VND", "USD", T0));
+        assertEquals(0, new BigDecimal("151.2345678901").compareTo(restaurada.rateAsOf("USD", "JPY", T0)));
+        restaurada.close();
+    }
+
+    @Test
+    void deveDescartarORegistoIncompletoNoFimDoArquivo() throws IOException {
+        Path arquivo = diretorio.resolve("rates.log");
+        RateTimeSeries original = new RateTimeSeries(arquivo.toString(), "USD", 30);
+        original.open();
+        original.record("USD", "EUR", new BigDecimal("0.90"), T0);
+        original.record("USD", "EUR", new BigDecimal("0.91"), T0.plusSeconds(60));
+        original.close();
+        byte[] conteudo = Files.readAllBytes(arquivo);
+        Files.write(arquivo, Arrays.copyOf(conteudo, conteudo.length - 1));
+
+        RateTimeSeries restaurada = new RateTimeSeries(arquivo.toString(), "USD", 30);
+        restaurada.open();
+        restaurada.record("USD", "EUR", new BigDecimal("0.95"), T0.plusSeconds(120));
+        restaurada.close();
+
+        RateTimeSeries relida = new RateTimeSeries(arquivo.toString(), "USD", 30);
+        relida.open();
+        assertEquals(0, new BigDecimal("0.90").compareTo(relida.rateAsOf("USD", "EUR", T0.plusSeconds(60))));
+        assertEquals(0, new BigDecimal("0.95").compareTo(relida.rateAsOf("USD", "EUR", T0.plusSeconds(120))));
+        relida.close();
+    }
+}
@@ -0,0 +1,123 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.config.UpstreamClientConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the reactive client against a local stub of the upstream API that answers after a delay.
+ * The stub itself uses two threads: responses are sent later by a scheduler, not by a sleeping thread.
+ */
+class ReactiveExchangeRateApiClientTest {
+
+    private static final int LATENCY_MILLIS = 300;
+
+    private HttpServer upstream;
+    private ScheduledExecutorService delayedResponses;
+    private ConnectionProvider connectionProvider;
+    private LoopResources loopResources;
+    private ReactiveExchangeRateApiClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        delayedResponses = Executors.newSingleThreadScheduledExecutor();
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1000);
+        upstream.createContext("/", this::answerLater);
+        upstream.start();
+
+        connectionProvider = ConnectionProvider.builder("test-upstream").maxConnections(500).build();
+        loopResources = LoopResources.create("test-upstream", 2, true);
+        String url = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/v6/";
+        client = new ReactiveExchangeRateApiClient(
+                UpstreamClientConfig.webClient(connectionProvider, loopResources, Duration.ofSeconds(2), Duration.ofSeconds(5)),
+                url, "key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+        delayedResponses.shutdownNow();
+        connectionProvider.dispose();
+        loopResources.dispose();
+    }
+
+    @Test
+    void deveManterONumeroDeThreadsEstavelComMuitasChamadasSimultaneas() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        client.fetchPairRate("USD", "EUR"); // aquece o event loop e o pool
+        int antes = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        // 200 chamadas em andamento ao mesmo tempo, todas disparadas por esta thread
+        List<BigDecimal> taxas = Flux.range(0, 200)
+                .flatMap(i -> client.pairRate("USD", "EUR"), 200)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertEquals(200, taxas.size());
+        // Com uma thread por chamada seriam +200; aqui só as threads fixas do event loop e do stub
+        assertTrue(threads.getPeakThreadCount() - antes < 20,
+                "threads antes: " + antes + ", pico: " + threads.getPeakThreadCount());
+    }
+
+    @Test
+    void deveTraduzirErro4xxEmMoedaInvalida() {
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> client.fetchPairRate("USD", "ZZZ"));
+
+        assertEquals("Moeda inválida ou não suportada: USD ou ZZZ", erro.getMessage());
+    }
+
+    @Test
+    void deveFalharQuandoAApiRespondeSemCorpo() {
+        // 200 sem corpo: a versão bloqueante falha, a reativa não pode devolver uma taxa nula
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> client.fetchPairRate("USD", "VZO"));
+
+        assertEquals("Falha ao obter dados da API externa.", erro.getMessage());
+    }
+
+    private void answerLater(HttpExchange exchange) {
+        delayedResponses.schedule(() -> answer(exchange), LATENCY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void answer(HttpExchange exchange) {
+        try (exchange) {
+            if (exchange.getRequestURI().getPath().endsWith("/VZO")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            boolean unsupported = exchange.getRequestURI().getPath().endsWith("/ZZZ");
+            byte[] body = (unsupported
+                    ? "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}"
+                    : "{\"result\":\"success\",\"conversion_rate\":0.85}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(unsupported ? 404 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.config.AppConfig;
+import com.devlearning.currencyconverter.exception.RatesUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the guarded client against a local fake of the upstream API whose failures are scripted per test.
+ */
+class ResilientRateClientTest {
+
+    private HttpServer upstream;
+    private ExchangeRateApiClient apiClient;
+
+    // Número de chamadas recebidas pela API falsa e quantas das próximas devem falhar com 500
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private final AtomicInteger falhasRestantes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        upstream.createContext("/", this::answer);
+        upstream.start();
+        String url = "http://127.0.0.1:" + upstream.getAddress().getPort() + "/v6/";
+        apiClient = new ExchangeRateApiClient(new AppConfig().restTemplate(500, 1000), url, "key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Test
+    void deveRepetirAsFalhasEDevolverATaxa() {
+        falhasRestantes.set(2);
+        ResilientRateClient client = new ResilientRateClient(apiClient, 5, 30000, 3, 1, 5, 1000, 0.1, 10);
+
+        assertEquals(new BigDecimal("0.85"), client.fetchPairRate("USD", "EUR"));
+        assertEquals(3, chamadas.get());
+        assertNotNull(client.lastKnown("USD", "EUR"));
+    }
+
+    @Test
+    void deveUsarATabelaRestauradaComoUltimaTaxaConhecida() {
+        ResilientRateClient client = new ResilientRateClient(apiClient, 5, 30000, 1, 0, 0, 1000, 0.1, 10);
+        Instant obtidaEm = Instant.now().minusSeconds(3600);
+        client.seed(new RateSnapshot("USD", Map.of("USD", BigDecimal.ONE, "EUR", new BigDecimal("0.8")), obtidaEm));
+
+        ResilientRateClient.KnownRate restaurada = client.lastKnown("USD", "EUR");
+        assertEquals(0, new BigDecimal("0.8").compareTo(restaurada.rate()));
+        assertEquals(obtidaEm, restaurada.fetchedAt());
+        assertNull(client.lastKnown("USD", "BRL"));
+
+        // Uma taxa obtida depois tem prioridade sobre a tabela
+        client.fetchPairRate("USD", "EUR");
+        assertEquals(new BigDecimal("0.85"), client.lastKnown("USD", "EUR").rate());
+        assertEquals(1, client.successfulFetches());
+    }
+
+    @Test
+    void deveAbrirOCircuitoEPararDeChamarAApi() {
+        falhasRestantes.set(Integer.MAX_VALUE);
+        ResilientRateClient client = new ResilientRateClient(apiClient, 3, 30000, 1, 0, 0, 1000, 0.1, 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RuntimeException.class, () -> client.fetchPairRate("USD", "EUR"));
+        }
+
+        // Circuito aberto: falha de imediato, sem chegar à API
+        assertThrows(RatesUnavailableException.class, () -> client.fetchPairRate("USD", "EUR"));
+        assertEquals(3, chamadas.get());
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+    }
+
+    @Test
+    void deveFecharOCircuitoQuandoAChamadaDeTesteTiverSucesso() throws InterruptedException {
+        falhasRestantes.set(1);
+        ResilientRateClient client = new ResilientRateClient(apiClient, 1, 50, 1, 0, 0, 1000, 0.1, 10);
+
+        assertThrows(RuntimeException.class, () -> client.fetchPairRate("USD", "EUR"));
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+
+        Thread.sleep(80);
+        assertEquals(new BigDecimal("0.85"), client.fetchPairRate("USD", "EUR"));
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    @Test
+    void deveReabrirOCircuitoQuandoAChamadaDeTesteLancaUmError() throws InterruptedException {
+        RateProvider fornecedor = mock(RateProvider.class);
+        when(fornecedor.fetchPairRate("USD", "EUR"))
+                .thenThrow(new RuntimeException("Erro ao comunicar com o serviço de câmbio."))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(new BigDecimal("0.85"));
+        ResilientRateClient client = new ResilientRateClient(fornecedor, 1, 50, 1, 0, 0, 1000, 0.1, 10);
+
+        assertThrows(RuntimeException.class, () -> client.fetchPairRate("USD", "EUR"));
+        Thread.sleep(80);
+        assertThrows(StackOverflowError.class, () -> client.fetchPairRate("USD", "EUR"));
+
+        // A chamada de teste terminou (mal): o circuito volta a abrir em vez de ficar meio aberto para sempre
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+        Thread.sleep(80);
+        assertEquals(new BigDecimal("0.85"), client.fetchPairRate("USD", "EUR"));
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    @Test
+    void naoDeveRepetirAlemDoTempoMaximo() {
+        falhasRestantes.set(Integer.MAX_VALUE);
+        // Tentativas e orçamento de sobra, mas nenhum tempo para repetir
+        ResilientRateClient client = new ResilientRateClient(apiClient, 100, 30000, 5, 0, 0, 0, 0.1, 10);
+
+        assertThrows(RuntimeException.class, () -> client.fetchPairRate("USD", "EUR"));
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void deveLimitarAsRepeticoesAoOrcamento() {
+        falhasRestantes.set(Integer.MAX_VALUE);
+        // Uma única repetição disponível e nenhuma reposição
+        ResilientRateClient client = new ResilientRateClient(apiClient, 100, 30000, 5, 0, 0, 1000, 0.0, 1);
+
+        assertThrows(RuntimeException.class, () -> client.fetchPairRate("USD", "EUR"));
+        assertEquals(2, chamadas.get());
+
+        assertThrows(RuntimeException.class, () -> client.fetchPairRate("USD", "EUR"));
+        assertEquals(3, chamadas.get());
+    }
+
+    @Test
+    void naoDeveContarMoedaInvalidaComoFalha() {
+        ResilientRateClient client = new ResilientRateClient(apiClient, 1, 30000, 3, 0, 0, 1000, 0.1, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> client.fetchPairRate("USD", "ZZZ"));
+        assertEquals(1, chamadas.get());
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        chamadas.incrementAndGet();
+        int status;
+        String body;
+        if (exchange.getRequestURI().getPath().endsWith("/ZZZ")) {
+            status = 404;
+            body = "{\"result\":\"error\",\"error-type\":\"unsupported-code\"}";
+        } else if (falhasRestantes.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            status = 500;
+            body = "{}";
+        } else {
+            status = 200;
+            body = "{\"result\":\"success\",\"conversion_rate\":0.85}";
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
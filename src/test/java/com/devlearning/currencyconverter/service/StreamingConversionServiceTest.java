@@ -0,0 +1,79 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.exception.RatesUnavailableException;
+import com.devlearning.currencyconverter.model.User;
+import com.devlearning.currencyconverter.repository.ConversionHistoryRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StreamingConversionServiceTest {
+
+    @Mock
+    private ExchangeService exchangeService;
+
+    @Mock
+    private ConversionHistoryRepository historyRepository;
+
+    @Mock
+    private ConversionStatsService statsService;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private ValidatorFactory validatorFactory;
+    private StreamingConversionService streamingService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        HistoryWriter historyWriter = new HistoryWriter(historyRepository, statsService, "sync", 1, 1, 50);
+        streamingService = new StreamingConversionService(exchangeService, historyWriter,
+                validatorFactory.getValidator(), mapper, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void deveResolverOParDeNovoNoBlocoSeguinteDepoisDeUmaFalha() throws Exception {
+        when(exchangeService.currentUser()).thenReturn(new User("admin", "hash", "ADMIN"));
+        when(exchangeService.resolveRate("USD", "EUR"))
+                .thenThrow(new RatesUnavailableException("Serviço de câmbio indisponível."))
+                .thenReturn(new ExchangeService.ResolvedRate(new BigDecimal("0.85"), false));
+        String linha = "{\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",\"amount\":100}\n";
+
+        StringWriter saida = new StringWriter();
+        long linhas = streamingService.convertStream(
+                new BufferedReader(new StringReader(linha.repeat(4))), saida, false);
+
+        assertEquals(4, linhas);
+        String[] resultados = saida.toString().split("\n");
+        assertEquals(4, resultados.length);
+        // A falha vale só para o primeiro bloco (linhas 0 e 1); o segundo resolve o par outra vez
+        for (int i = 0; i < 4; i++) {
+            JsonNode resultado = mapper.readTree(resultados[i]);
+            assertEquals(i, resultado.get("index").asInt());
+            assertEquals(i >= 2, resultado.has("result"), "linha " + i);
+        }
+        verify(exchangeService, times(2)).resolveRate("USD", "EUR");
+    }
+}
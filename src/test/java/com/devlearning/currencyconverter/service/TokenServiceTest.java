@@ -0,0 +1,70 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.model.User;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class TokenServiceTest {
+
+    private static final String SEGREDO = "segredo-de-teste-com-pelo-menos-32-bytes";
+
+    private static User usuario() {
+        User user = Mockito.mock(User.class);
+        when(user.getId()).thenReturn(42L);
+        when(user.getUsername()).thenReturn("maria:silva");
+        when(user.getRole()).thenReturn("USER");
+        return user;
+    }
+
+    @Test
+    void deveAceitarTokenEmitidoPeloServico() {
+        TokenService service = new TokenService(SEGREDO, 3600);
+
+        AuthenticatedUser principal = service.verify(service.issue(usuario()));
+
+        assertNotNull(principal);
+        assertEquals(42L, principal.id());
+        assertEquals("maria:silva", principal.getName());
+        assertEquals("USER", principal.role());
+    }
+
+    @Test
+    void deveRejeitarTokenAlterado() {
+        TokenService service = new TokenService(SEGREDO, 3600);
+        String token = service.issue(usuario());
+
+        // Promove o usuário a ADMIN no payload mantendo a assinatura original
+        String payloadFalso = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("42:ADMIN:9999999999:maria:silva".getBytes(StandardCharsets.UTF_8));
+        String adulterado = payloadFalso + token.substring(token.indexOf('.'));
+
+        assertNull(service.verify(adulterado));
+        assertNull(service.verify("lixo"));
+        assertNull(service.verify("a.b"));
+    }
+
+    @Test
+    void deveRejeitarTokenDeOutraChave() {
+        String token = new TokenService("outra-chave-de-teste-com-32-bytes!", 3600).issue(usuario());
+
+        assertNull(new TokenService(SEGREDO, 3600).verify(token));
+    }
+
+    @Test
+    void deveRejeitarTokenExpirado() {
+        TokenService service = new TokenService(SEGREDO, 0);
+
+        assertNull(service.verify(service.issue(usuario())));
+    }
+
+    @Test
+    void deveRecusarSegredoCurto() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenService("segredo-curto", 3600));
+    }
+}
@@ -0,0 +1,70 @@
+package com.devlearning.currencyconverter.service;
+
+import com.devlearning.currencyconverter.model.User;
+import com.devlearning.currencyconverter.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdentityCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserIdentityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserIdentityCache(userRepository);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("joao", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deveConsultarOBancoApenasNaPrimeiraVez() {
+        User joao = Mockito.mock(User.class);
+        when(joao.getId()).thenReturn(7L);
+        User referencia = new User();
+        when(userRepository.findByUsername("joao")).thenReturn(Optional.of(joao));
+        when(userRepository.getReferenceById(7L)).thenReturn(referencia);
+
+        assertSame(joao, cache.currentUser());
+        assertSame(referencia, cache.currentUser());
+        assertSame(referencia, cache.currentUser());
+
+        verify(userRepository, times(1)).findByUsername("joao");
+    }
+
+    @Test
+    void deveConsultarDeNovoDepoisDeInvalidar() {
+        User joao = Mockito.mock(User.class);
+        when(joao.getId()).thenReturn(7L);
+        when(userRepository.findByUsername("joao")).thenReturn(Optional.of(joao));
+
+        cache.currentUser();
+        cache.evict("joao");
+        cache.currentUser();
+
+        verify(userRepository, times(2)).findByUsername("joao");
+    }
+}